@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.asm;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.proxy2.Invocation;
+import org.apache.commons.proxy2.ProxyUtils;
+import org.apache.commons.proxy2.impl.ConcurrentWeakIdentityMap;
+import org.apache.commons.proxy2.impl.MethodSignature;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+
+/**
+ * An <a href="http://asm.ow2.org/">ASM</a>-based {@link Invocation} implementation. This class serves as the superclass
+ * for all ASM-based method invocations. Subclasses are dynamically created to deal with specific interface methods
+ * (they're hard-wired), so that {@link #proceed()} calls the target directly rather than through reflection.
+ *
+ * @since 2.1
+ */
+public abstract class ASMInvocation implements Invocation
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final Type ASM_INVOCATION_TYPE = Type.getType(ASMInvocation.class);
+    private static final Type OBJECT_TYPE = Type.getType(Object.class);
+    private static final Type OBJECT_ARRAY_TYPE = Type.getType(Object[].class);
+
+    private static final org.objectweb.asm.commons.Method CONSTRUCTOR = new org.objectweb.asm.commons.Method(
+            "<init>", Type.VOID_TYPE, new Type[] { OBJECT_TYPE, OBJECT_TYPE, Type.getType(Method.class),
+                    OBJECT_ARRAY_TYPE });
+
+    /**
+     * Per-method invocation classes by {@link ClassLoader}, then by declaring class, then by {@link MethodSignature}.
+     * Declaring classes are weakly referenced and signatures reference no classes, so the cache keeps neither loaders
+     * nor declaring classes alive. Generated classes are weakly referenced.
+     */
+    private static final ConcurrentWeakIdentityMap<ClassLoader, ConcurrentWeakIdentityMap<Class<?>,
+            ConcurrentMap<MethodSignature, InvocationClassEntry>>> loaderToClassCache
+        = new ConcurrentWeakIdentityMap<ClassLoader, ConcurrentWeakIdentityMap<Class<?>,
+            ConcurrentMap<MethodSignature, InvocationClassEntry>>>();
+
+    /** The proxy object */
+    private final Object proxy;
+
+    /** The target object */
+    private final Object target;
+
+    /** The invoked method */
+    private final Method method;
+
+    /** The method arguments */
+    private final Object[] arguments;
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Returns the constructor descriptor shared by all generated invocation classes.
+     *
+     * @return {@link org.objectweb.asm.commons.Method}
+     */
+    static org.objectweb.asm.commons.Method getConstructor()
+    {
+        return CONSTRUCTOR;
+    }
+
+    private static Class<?> createInvocationClass(ClassLoader classLoader, Method interfaceMethod)
+    {
+        final String className = ASMProxyFactory.generateClassName() + "_" + interfaceMethod.getName()
+                + "_invocation";
+        final Type invocationType = Type.getObjectType(className);
+
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, invocationType.getInternalName(), null,
+                ASM_INVOCATION_TYPE.getInternalName(), null);
+
+        // constructor simply passes everything to super:
+        GeneratorAdapter mg = new GeneratorAdapter(Opcodes.ACC_PUBLIC, CONSTRUCTOR, null, null, cw);
+        mg.loadThis();
+        mg.loadArgs();
+        mg.invokeConstructor(ASM_INVOCATION_TYPE, CONSTRUCTOR);
+        mg.returnValue();
+        mg.endMethod();
+
+        // the following code generates bytecode equivalent to:
+        // return ((<declaring type>) getTarget()).<method>((<type>) getArguments()[0], ...);
+        mg = new GeneratorAdapter(Opcodes.ACC_PUBLIC, org.objectweb.asm.commons.Method.getMethod("Object proceed()"),
+                null, new Type[] { Type.getType(Throwable.class) }, cw);
+
+        final Type declaringType = Type.getType(interfaceMethod.getDeclaringClass());
+        mg.loadThis();
+        mg.invokeVirtual(ASM_INVOCATION_TYPE, org.objectweb.asm.commons.Method.getMethod("Object getTarget()"));
+        mg.checkCast(declaringType);
+
+        final Type[] argumentTypes = Type.getArgumentTypes(interfaceMethod);
+        if (argumentTypes.length > 0)
+        {
+            final int arguments = mg.newLocal(OBJECT_ARRAY_TYPE);
+            mg.loadThis();
+            mg.invokeVirtual(ASM_INVOCATION_TYPE,
+                    org.objectweb.asm.commons.Method.getMethod("Object[] getArguments()"));
+            mg.storeLocal(arguments);
+
+            for (int i = 0; i < argumentTypes.length; i++)
+            {
+                mg.loadLocal(arguments);
+                mg.push(i);
+                mg.arrayLoad(OBJECT_TYPE);
+                mg.unbox(argumentTypes[i]);
+            }
+        }
+
+        final org.objectweb.asm.commons.Method m = org.objectweb.asm.commons.Method.getMethod(interfaceMethod);
+        if (interfaceMethod.getDeclaringClass().isInterface())
+        {
+            mg.invokeInterface(declaringType, m);
+        }
+        else
+        {
+            mg.invokeVirtual(declaringType, m);
+        }
+
+        final Type returnType = m.getReturnType();
+        if (Type.VOID_TYPE.equals(returnType))
+        {
+            mg.visitInsn(Opcodes.ACONST_NULL);
+        }
+        else
+        {
+            mg.valueOf(returnType);
+        }
+        mg.returnValue();
+        mg.endMethod();
+
+        cw.visitEnd();
+        return ASMProxyFactory.loadClass(classLoader, className, cw.toByteArray());
+    }
+
+    private static ConcurrentMap<MethodSignature, InvocationClassEntry> getClassCache(ClassLoader classLoader,
+            Class<?> declaringClass)
+    {
+        ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>> loaderCache
+            = loaderToClassCache.get(classLoader);
+        if (loaderCache == null)
+        {
+            final ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>> newCache
+                = new ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>>();
+            loaderCache = loaderToClassCache.putIfAbsent(classLoader, newCache);
+            if (loaderCache == null)
+            {
+                loaderCache = newCache;
+            }
+        }
+        ConcurrentMap<MethodSignature, InvocationClassEntry> cache = loaderCache.get(declaringClass);
+        if (cache == null)
+        {
+            final ConcurrentMap<MethodSignature, InvocationClassEntry> newCache
+                = new ConcurrentHashMap<MethodSignature, InvocationClassEntry>();
+            cache = loaderCache.putIfAbsent(declaringClass, newCache);
+            if (cache == null)
+            {
+                cache = newCache;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns a method invocation class specifically coded to invoke the supplied interface method.
+     *
+     * @param classLoader
+     *            the classloader to use
+     * @param interfaceMethod
+     *            the interface method
+     * @return a method invocation class specifically coded to invoke the supplied interface method
+     */
+    static Class<?> getMethodInvocationClass(ClassLoader classLoader, Method interfaceMethod)
+    {
+        final ConcurrentMap<MethodSignature, InvocationClassEntry> classCache = getClassCache(classLoader,
+                interfaceMethod.getDeclaringClass());
+        final MethodSignature key = new MethodSignature(interfaceMethod);
+        InvocationClassEntry entry = classCache.get(key);
+        if (entry == null)
+        {
+            final InvocationClassEntry newEntry = new InvocationClassEntry();
+            entry = classCache.putIfAbsent(key, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
+        }
+        final Class<?> invocationClass = entry.get();
+        return invocationClass == null ? entry.generate(classLoader, interfaceMethod) : invocationClass;
+    }
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    /**
+     * Create a new ASMInvocation instance. The <code>arguments</code> array is used as-is; generated proxies always pass
+     * a freshly allocated array.
+     *
+     * @param proxy
+     * @param target
+     * @param method
+     * @param arguments
+     */
+    protected ASMInvocation(Object proxy, Object target, Method method, Object[] arguments)
+    {
+        this.proxy = proxy;
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments == null ? ProxyUtils.EMPTY_ARGUMENTS : arguments;
+    }
+
+    //******************************************************************************************************************
+    // Invocation Implementation
+    //******************************************************************************************************************
+
+    protected final Object getTarget()
+    {
+        return target;
+    }
+
+    @Override
+    public Object[] getArguments()
+    {
+        return arguments;
+    }
+
+    @Override
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    @Override
+    public Object getProxy()
+    {
+        return proxy;
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Holds a weak reference to a generated invocation class. Generation is guarded by the entry's own monitor.
+     */
+    private static final class InvocationClassEntry
+    {
+        private volatile Reference<Class<?>> invocationClassReference;
+
+        Class<?> get()
+        {
+            final Reference<Class<?>> ref = invocationClassReference;
+            return ref == null ? null : ref.get();
+        }
+
+        synchronized Class<?> generate(ClassLoader classLoader, Method interfaceMethod)
+        {
+            Class<?> invocationClass = get();
+            if (invocationClass == null)
+            {
+                invocationClass = createInvocationClass(classLoader, interfaceMethod);
+                invocationClassReference = new WeakReference<Class<?>>(invocationClass);
+            }
+            return invocationClass;
+        }
+    }
+}
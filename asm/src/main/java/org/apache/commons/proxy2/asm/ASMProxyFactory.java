@@ -17,22 +17,23 @@
 package org.apache.commons.proxy2.asm;
 
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.proxy2.Interceptor;
-import org.apache.commons.proxy2.Invocation;
 import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
 import org.apache.commons.proxy2.ProxyUtils;
 import org.apache.commons.proxy2.exception.ProxyFactoryException;
 import org.apache.commons.proxy2.impl.AbstractProxyClassGenerator;
 import org.apache.commons.proxy2.impl.AbstractSubclassingProxyFactory;
+import org.apache.commons.proxy2.impl.MethodMetadata;
 import org.apache.commons.proxy2.impl.ProxyClassCache;
+import org.apache.commons.proxy2.impl.ProxyConstructorCache;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.Opcodes;
@@ -41,20 +42,34 @@ import org.objectweb.asm.commons.GeneratorAdapter;
 
 public class ASMProxyFactory extends AbstractSubclassingProxyFactory
 {
+    private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
+    private static final String CLASSNAME_PREFIX = "CommonsProxyASM_";
+
     private static final ProxyClassCache PROXY_CLASS_CACHE = new ProxyClassCache(new ProxyGenerator());
+    private static final ProxyClassCache DELEGATOR_PROXY_CLASS_CACHE = new ProxyClassCache(
+            new DelegatorProxyGenerator());
+    private static final ProxyClassCache INTERCEPTOR_PROXY_CLASS_CACHE = new ProxyClassCache(
+            new InterceptorProxyGenerator());
+    private static final ProxyConstructorCache INVOKER_CONSTRUCTOR_CACHE = new ProxyConstructorCache(Invoker.class);
+    private static final ProxyConstructorCache DELEGATOR_CONSTRUCTOR_CACHE = new ProxyConstructorCache(
+            ObjectProvider.class);
+    private static final ProxyConstructorCache INTERCEPTOR_CONSTRUCTOR_CACHE = new ProxyConstructorCache(
+            Object.class, Interceptor.class);
 
     @Override
     public <T> T createDelegatorProxy(final ClassLoader classLoader, final ObjectProvider<?> delegateProvider,
             final Class<?>... proxyClasses)
     {
-        return createProxy(classLoader, new DelegatorInvoker(delegateProvider), proxyClasses);
+        final Class<?> proxyClass = DELEGATOR_PROXY_CLASS_CACHE.getProxyClass(classLoader, proxyClasses);
+        return newInstance(DELEGATOR_CONSTRUCTOR_CACHE, proxyClass, delegateProvider);
     }
 
     @Override
     public <T> T createInterceptorProxy(final ClassLoader classLoader, final Object target,
             final Interceptor interceptor, final Class<?>... proxyClasses)
     {
-        return createProxy(classLoader, new InterceptorInvoker(target, interceptor), proxyClasses);
+        final Class<?> proxyClass = INTERCEPTOR_PROXY_CLASS_CACHE.getProxyClass(classLoader, proxyClasses);
+        return newInstance(INTERCEPTOR_CONSTRUCTOR_CACHE, proxyClass, target, interceptor);
     }
 
     @Override
@@ -68,10 +83,16 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
             final Class<?>... proxyClasses)
     {
         final Class<?> proxyClass = PROXY_CLASS_CACHE.getProxyClass(classLoader, proxyClasses);
+        return newInstance(INVOKER_CONSTRUCTOR_CACHE, proxyClass, invoker);
+    }
+
+    private static <T> T newInstance(final ProxyConstructorCache constructorCache, final Class<?> proxyClass,
+            final Object... arguments)
+    {
         try
         {
             @SuppressWarnings("unchecked") // type inference
-            final T result = (T) proxyClass.getConstructor(Invoker.class).newInstance(invoker);
+            final T result = (T) constructorCache.getConstructor(proxyClass).newInstance(arguments);
             return result;
         }
         catch (Exception e)
@@ -80,18 +101,88 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
         }
     }
 
+    /**
+     * Returns a new, unique name for a generated class.
+     * 
+     * @return String
+     */
+    static String generateClassName()
+    {
+        return CLASSNAME_PREFIX + CLASS_NUMBER.incrementAndGet();
+    }
+
+    /**
+     * Declares the static field through which {@link ProxyConstructorCache} keeps the proxy constructor reachable.
+     *
+     * @param cw
+     */
+    static void addConstructorField(ClassWriter cw)
+    {
+        cw.visitField(Opcodes.ACC_PRIVATE + Opcodes.ACC_STATIC, ProxyConstructorCache.CONSTRUCTOR_FIELD_NAME,
+                Type.getDescriptor(Constructor.class), null, null).visitEnd();
+    }
+
+    static Type[] getTypes(Class<?>... src)
+    {
+        final Type[] result = new Type[src.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = Type.getType(src[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adapted from http://asm.ow2.org/doc/faq.html#Q5
+     * 
+     * @param b
+     * @return Class<?>
+     */
+    static Class<?> loadClass(final ClassLoader loader, String className, byte[] b)
+    {
+        // override classDefine (as it is protected) and define the class.
+        try
+        {
+            final Method method = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class,
+                    int.class, int.class);
+
+            // protected method invocation
+            final boolean accessible = method.isAccessible();
+            if (!accessible)
+            {
+                method.setAccessible(true);
+            }
+            try
+            {
+                return (Class<?>) method
+                        .invoke(loader, className, b, Integer.valueOf(0), Integer.valueOf(b.length));
+            }
+            finally
+            {
+                if (!accessible)
+                {
+                    method.setAccessible(false);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            throw e instanceof RuntimeException ? ((RuntimeException) e) : new RuntimeException(e);
+        }
+    }
+
     private static class ProxyGenerator extends AbstractProxyClassGenerator implements Opcodes
     {
-        private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
-        private static final String CLASSNAME_PREFIX = "CommonsProxyASM_";
         private static final String HANDLER_NAME = "__handler";
+        private static final String METHOD_FIELD_PREFIX = "__method";
+        private static final Type METHOD_TYPE = Type.getType(Method.class);
         private static final Type INVOKER_TYPE = Type.getType(Invoker.class);
 
         @Override
         public Class<?> generateProxyClass(final ClassLoader classLoader, final Class<?>... proxyClasses)
         {
             final Class<?> superclass = getSuperclass(proxyClasses);
-            final String proxyName = CLASSNAME_PREFIX + CLASS_NUMBER.incrementAndGet();
+            final String proxyName = generateClassName();
             final Method[] implementationMethods = getImplementationMethods(proxyClasses);
             final Class<?>[] interfaces = toInterfaces(proxyClasses);
             final String classFileName = proxyName.replace('.', '/');
@@ -127,21 +218,32 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
 
             // create Invoker field
             cw.visitField(ACC_FINAL + ACC_PRIVATE, HANDLER_NAME, INVOKER_TYPE.getDescriptor(), null, null).visitEnd();
+            addConstructorField(cw);
 
-            init(cw, proxyType, superType);
+            // create a static Method field for each implemented method:
+            for (int i = 0; i < methods.length; i++)
+            {
+                cw.visitField(ACC_FINAL + ACC_PRIVATE + ACC_STATIC, METHOD_FIELD_PREFIX + i,
+                        METHOD_TYPE.getDescriptor(), null, null).visitEnd();
+            }
 
-            for (final Method method : methods)
+            staticInit(cw, proxyType, methods);
+
+            init(cw, proxyType, superType, HANDLER_NAME, INVOKER_TYPE);
+
+            for (int i = 0; i < methods.length; i++)
             {
-                processMethod(cw, method, proxyType, HANDLER_NAME);
+                processMethod(cw, methods[i], i, proxyType, HANDLER_NAME);
             }
 
             return cw.toByteArray();
         }
 
-        private static void init(final ClassWriter cw, final Type proxyType, Type superType)
+        private static void init(final ClassWriter cw, final Type proxyType, final Type superType,
+                final String fieldName, final Type fieldType)
         {
             final GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC, new org.objectweb.asm.commons.Method("<init>",
-                    Type.VOID_TYPE, new Type[] { INVOKER_TYPE }), null, null, cw);
+                    Type.VOID_TYPE, new Type[] { fieldType }), null, null, cw);
             // invoke super constructor:
             mg.loadThis();
             mg.invokeConstructor(superType, org.objectweb.asm.commons.Method.getMethod("void <init> ()"));
@@ -149,70 +251,83 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
             // assign handler:
             mg.loadThis();
             mg.loadArg(0);
-            mg.putField(proxyType, HANDLER_NAME, INVOKER_TYPE);
+            mg.putField(proxyType, fieldName, fieldType);
             mg.returnValue();
             mg.endMethod();
         }
 
-        private static void processMethod(final ClassWriter cw, final Method method, final Type proxyType,
-                final String handlerName) throws ProxyFactoryException
+        /**
+         * Generates a static initializer that resolves each implemented {@link Method} exactly once, storing it in a
+         * static field of the proxy class.
+         */
+        private static void staticInit(final ClassWriter cw, final Type proxyType, final Method[] methods)
         {
-            final Type sig = Type.getType(method);
-            final Type[] exceptionTypes = getTypes(method.getExceptionTypes());
+            final GeneratorAdapter mg = new GeneratorAdapter(ACC_STATIC, org.objectweb.asm.commons.Method
+                    .getMethod("void <clinit> ()"), null, null, cw);
+            final Type classType = Type.getType(Class.class);
 
-            // push the method definition
-            final int access = (ACC_PUBLIC | ACC_PROTECTED) & method.getModifiers();
-            final org.objectweb.asm.commons.Method m = org.objectweb.asm.commons.Method.getMethod(method);
-            final GeneratorAdapter mg = new GeneratorAdapter(access, m, null, getTypes(method.getExceptionTypes()), cw);
+            for (int i = 0; i < methods.length; i++)
+            {
+                final Method method = methods[i];
+                final Type[] argumentTypes = Type.getArgumentTypes(method);
 
-            final Label tryBlock = exceptionTypes.length > 0 ? mg.mark() : null;
+                // the following code generates the bytecode for this line of Java:
+                // __method<i> = <declaring class>.class.getDeclaredMethod("<name>", new Class[] {
+                // <array of function argument classes> });
 
-            mg.push(Type.getType(method.getDeclaringClass()));
+                mg.push(Type.getType(method.getDeclaringClass()));
+                mg.push(method.getName());
 
-            // the following code generates the bytecode for this line of Java:
-            // Method method = <proxy>.class.getMethod("add", new Class[] {
-            // <array of function argument classes> });
+                // create the Class[]
+                mg.push(argumentTypes.length);
+                mg.newArray(classType);
 
-            // get the method name to invoke, and push to stack
+                // push parameters into array
+                for (int j = 0; j < argumentTypes.length; j++)
+                {
+                    // keep copy of array on stack
+                    mg.dup();
 
-            mg.push(method.getName());
+                    // push index onto stack
+                    mg.push(j);
+                    mg.push(argumentTypes[j]);
+                    mg.arrayStore(classType);
+                }
 
-            // create the Class[]
-            mg.push(sig.getArgumentTypes().length);
-            final Type classType = Type.getType(Class.class);
-            mg.newArray(classType);
+                // invoke getDeclaredMethod() with the method name and the array of types
+                mg.invokeVirtual(classType, org.objectweb.asm.commons.Method
+                        .getMethod("java.lang.reflect.Method getDeclaredMethod(String, Class[])"));
+                mg.putStatic(proxyType, METHOD_FIELD_PREFIX + i, METHOD_TYPE);
+            }
+            mg.returnValue();
+            mg.endMethod();
+        }
 
-            // push parameters into array
-            for (int i = 0; i < sig.getArgumentTypes().length; i++)
-            {
-                // keep copy of array on stack
-                mg.dup();
+        private static void processMethod(final ClassWriter cw, final Method method, final int methodIndex,
+                final Type proxyType, final String handlerName) throws ProxyFactoryException
+        {
+            final Type sig = Type.getType(method);
+            final Type[] exceptionTypes = getTypes(method.getExceptionTypes());
 
-                // push index onto stack
-                mg.push(i);
-                mg.push(sig.getArgumentTypes()[i]);
-                mg.arrayStore(classType);
-            }
+            // push the method definition
+            final int access = (ACC_PUBLIC | ACC_PROTECTED) & method.getModifiers();
+            final org.objectweb.asm.commons.Method m = org.objectweb.asm.commons.Method.getMethod(method);
+            final GeneratorAdapter mg = new GeneratorAdapter(access, m, null, getTypes(method.getExceptionTypes()), cw);
 
-            // invoke getMethod() with the method name and the array of types
-            mg.invokeVirtual(classType, org.objectweb.asm.commons.Method
-                    .getMethod("java.lang.reflect.Method getDeclaredMethod(String, Class[])"));
-            // store the returned method for later
+            final Label tryBlock = exceptionTypes.length > 0 ? mg.mark() : null;
 
             // the following code generates bytecode equivalent to:
-            // return ((<returntype>) invoker.invoke(this, method, new Object[]
+            // return ((<returntype>) invoker.invoke(this, __method<i>, new Object[]
             // { <function arguments }))[.<primitive>Value()];
 
             mg.loadThis();
-
             mg.getField(proxyType, handlerName, INVOKER_TYPE);
-            // put below method:
-            mg.swap();
 
             // we want to pass "this" in as the first parameter
             mg.loadThis();
-            // put below method:
-            mg.swap();
+
+            // load the Method resolved by the static initializer
+            mg.getStatic(proxyType, METHOD_FIELD_PREFIX + methodIndex, METHOD_TYPE);
 
             // need to construct the array of objects passed in
 
@@ -252,6 +367,7 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
                 mg.catchException(tryBlock, mg.mark(), caughtExceptionType);
 
                 final Label throwCause = new Label();
+                final Type classType = Type.getType(Class.class);
 
                 mg.invokeVirtual(caughtExceptionType,
                         org.objectweb.asm.commons.Method.getMethod("Throwable getCause()"));
@@ -285,98 +401,300 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
             // finish this method
             mg.endMethod();
         }
+    }
+
+    /**
+     * Generates delegator proxy classes whose methods call the object returned by the {@link ObjectProvider} directly,
+     * i.e. without an argument array, boxing or reflection:
+     * <code>return ((&lt;declaring type&gt;) provider.getObject()).&lt;method&gt;(&lt;arguments&gt;);</code>
+     */
+    private static class DelegatorProxyGenerator extends AbstractProxyClassGenerator implements Opcodes
+    {
+        private static final String PROVIDER_NAME = "__provider";
+        private static final Type OBJECT_PROVIDER_TYPE = Type.getType(ObjectProvider.class);
 
-        private static Type[] getTypes(Class<?>... src)
+        @Override
+        public Class<?> generateProxyClass(final ClassLoader classLoader, final Class<?>... proxyClasses)
         {
-            final Type[] result = new Type[src.length];
-            for (int i = 0; i < result.length; i++)
+            final Class<?> superclass = getSuperclass(proxyClasses);
+            final String proxyName = generateClassName();
+            final Method[] implementationMethods = getImplementationMethods(proxyClasses);
+            final Class<?>[] interfaces = toInterfaces(proxyClasses);
+            final String classFileName = proxyName.replace('.', '/');
+
+            try
             {
-                result[i] = Type.getType(src[i]);
+                final byte[] proxyBytes = generateProxy(superclass, classFileName, implementationMethods, proxyClasses,
+                        interfaces);
+                return loadClass(classLoader, proxyName, proxyBytes);
+            }
+            catch (final Exception e)
+            {
+                throw new ProxyFactoryException(e);
             }
-            return result;
         }
 
-        /**
-         * Adapted from http://asm.ow2.org/doc/faq.html#Q5
-         * 
-         * @param b
-         * @return Class<?>
-         */
-        private static Class<?> loadClass(final ClassLoader loader, String className, byte[] b)
+        private static byte[] generateProxy(final Class<?> classToProxy, final String proxyName,
+                final Method[] methods, final Class<?>[] proxyClasses, final Class<?>... interfaces)
         {
-            // override classDefine (as it is protected) and define the class.
-            try
+            final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+            final Type proxyType = Type.getObjectType(proxyName);
+
+            // push class signature
+            final String[] interfaceNames = new String[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++)
             {
-                final Method method = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class,
-                        int.class, int.class);
+                interfaceNames[i] = Type.getType(interfaces[i]).getInternalName();
+            }
 
-                // protected method invocation
-                final boolean accessible = method.isAccessible();
-                if (!accessible)
-                {
-                    method.setAccessible(true);
-                }
-                try
+            final Type superType = Type.getType(classToProxy);
+            cw.visit(V1_6, ACC_PUBLIC + ACC_SUPER, proxyType.getInternalName(), null, superType.getInternalName(),
+                    interfaceNames);
+
+            // create ObjectProvider field
+            cw.visitField(ACC_FINAL + ACC_PRIVATE, PROVIDER_NAME, OBJECT_PROVIDER_TYPE.getDescriptor(), null, null)
+                    .visitEnd();
+            addConstructorField(cw);
+
+            ProxyGenerator.init(cw, proxyType, superType, PROVIDER_NAME, OBJECT_PROVIDER_TYPE);
+
+            equalsMethod(cw);
+            hashCodeMethod(cw);
+
+            for (final Method method : methods)
+            {
+                if (!ProxyUtils.isEqualsMethod(method) && !ProxyUtils.isHashCode(method))
                 {
-                    return (Class<?>) method
-                            .invoke(loader, className, b, Integer.valueOf(0), Integer.valueOf(b.length));
+                    processMethod(cw, method, proxyType, getCallType(method, proxyClasses));
                 }
-                finally
+            }
+
+            return cw.toByteArray();
+        }
+
+        private static void equalsMethod(final ClassWriter cw)
+        {
+            final GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC,
+                    org.objectweb.asm.commons.Method.getMethod("boolean equals(Object)"), null, null, cw);
+            final Label notSame = new Label();
+            mg.loadThis();
+            mg.loadArg(0);
+            mg.ifCmp(Type.getType(Object.class), GeneratorAdapter.NE, notSame);
+            mg.push(true);
+            mg.returnValue();
+            mg.mark(notSame);
+            mg.push(false);
+            mg.returnValue();
+            mg.endMethod();
+        }
+
+        private static void hashCodeMethod(final ClassWriter cw)
+        {
+            final GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC,
+                    org.objectweb.asm.commons.Method.getMethod("int hashCode()"), null, null, cw);
+            mg.loadThis();
+            mg.invokeStatic(Type.getType(System.class),
+                    org.objectweb.asm.commons.Method.getMethod("int identityHashCode(Object)"));
+            mg.returnValue();
+            mg.endMethod();
+        }
+
+        /**
+         * Returns the type through which the generated proxy should call <code>method</code> on the delegate. This is
+         * the declaring class, unless that class is not publicly accessible, in which case a public proxy class
+         * inheriting the method is used instead.
+         */
+        private static Class<?> getCallType(final Method method, final Class<?>[] proxyClasses)
+        {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            if (Modifier.isPublic(declaringClass.getModifiers()))
+            {
+                return declaringClass;
+            }
+            for (final Class<?> proxyClass : proxyClasses)
+            {
+                if (declaringClass.isAssignableFrom(proxyClass))
                 {
-                    if (!accessible)
-                    {
-                        method.setAccessible(false);
-                    }
+                    return proxyClass;
                 }
             }
-            catch (Exception e)
+            return declaringClass;
+        }
+
+        private static void processMethod(final ClassWriter cw, final Method method, final Type proxyType,
+                final Class<?> callType)
+        {
+            final int access = (ACC_PUBLIC | ACC_PROTECTED) & method.getModifiers();
+            final org.objectweb.asm.commons.Method m = org.objectweb.asm.commons.Method.getMethod(method);
+            final GeneratorAdapter mg = new GeneratorAdapter(access, m, null,
+                    getTypes(method.getExceptionTypes()), cw);
+
+            // the following code generates bytecode equivalent to:
+            // return ((<calltype>) provider.getObject()).<method>(<function arguments>);
+
+            mg.loadThis();
+            mg.getField(proxyType, PROVIDER_NAME, OBJECT_PROVIDER_TYPE);
+            mg.invokeInterface(OBJECT_PROVIDER_TYPE, org.objectweb.asm.commons.Method.getMethod("Object getObject()"));
+
+            final Type type = Type.getType(callType);
+            mg.checkCast(type);
+            mg.loadArgs();
+            if (callType.isInterface())
+            {
+                mg.invokeInterface(type, m);
+            }
+            else
             {
-                throw e instanceof RuntimeException ? ((RuntimeException) e) : new RuntimeException(e);
+                mg.invokeVirtual(type, m);
             }
+            mg.returnValue();
+            mg.endMethod();
         }
     }
 
-    @SuppressWarnings("serial")
-    private static class DelegatorInvoker extends AbstractInvoker
+    /**
+     * Generates interceptor proxy classes. Each method passes a hard-wired {@link ASMInvocation} subclass, obtained
+     * from {@link ASMInvocation#getMethodInvocationClass(ClassLoader, Method)}, to the {@link Interceptor}:
+     * <code>return interceptor.intercept(new &lt;invocation&gt;(this, target, method, new Object[] { ... }));</code>
+     */
+    private static class InterceptorProxyGenerator extends AbstractProxyClassGenerator implements Opcodes
     {
-        private final ObjectProvider<?> delegateProvider;
-
-        protected DelegatorInvoker(ObjectProvider<?> delegateProvider)
-        {
-            this.delegateProvider = delegateProvider;
-        }
+        private static final String TARGET_NAME = "__target";
+        private static final String INTERCEPTOR_NAME = "__interceptor";
+        private static final Type OBJECT_TYPE = Type.getType(Object.class);
+        private static final Type INTERCEPTOR_TYPE = Type.getType(Interceptor.class);
 
         @Override
-        public Object invokeImpl(Object proxy, Method method, Object[] args) throws Throwable
+        public Class<?> generateProxyClass(final ClassLoader classLoader, final Class<?>... proxyClasses)
         {
+            final Class<?> superclass = getSuperclass(proxyClasses);
+            final String proxyName = generateClassName();
+            final Method[] implementationMethods = getImplementationMethods(proxyClasses);
+            final Class<?>[] interfaces = toInterfaces(proxyClasses);
+            final String classFileName = proxyName.replace('.', '/');
+
             try
             {
-                return method.invoke(delegateProvider.getObject(), args);
+                final byte[] proxyBytes = generateProxy(classLoader, superclass, classFileName,
+                        implementationMethods, interfaces);
+                return loadClass(classLoader, proxyName, proxyBytes);
             }
-            catch (InvocationTargetException e)
+            catch (final Exception e)
             {
-                throw e.getTargetException();
+                throw new ProxyFactoryException(e);
             }
         }
-    }
 
-    @SuppressWarnings("serial")
-    private static class InterceptorInvoker extends AbstractInvoker
-    {
-        private final Object target;
-        private final Interceptor methodInterceptor;
+        private static byte[] generateProxy(final ClassLoader classLoader, final Class<?> classToProxy,
+                final String proxyName, final Method[] methods, final Class<?>... interfaces)
+        {
+            final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+            final Type proxyType = Type.getObjectType(proxyName);
+
+            // push class signature
+            final String[] interfaceNames = new String[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++)
+            {
+                interfaceNames[i] = Type.getType(interfaces[i]).getInternalName();
+            }
+
+            final Type superType = Type.getType(classToProxy);
+            cw.visit(V1_6, ACC_PUBLIC + ACC_SUPER, proxyType.getInternalName(), null, superType.getInternalName(),
+                    interfaceNames);
+
+            // create target and Interceptor fields
+            cw.visitField(ACC_FINAL + ACC_PRIVATE, TARGET_NAME, OBJECT_TYPE.getDescriptor(), null, null).visitEnd();
+            cw.visitField(ACC_FINAL + ACC_PRIVATE, INTERCEPTOR_NAME, INTERCEPTOR_TYPE.getDescriptor(), null, null)
+                    .visitEnd();
+            addConstructorField(cw);
+
+            // create a static Method field for each implemented method:
+            for (int i = 0; i < methods.length; i++)
+            {
+                cw.visitField(ACC_FINAL + ACC_PRIVATE + ACC_STATIC, ProxyGenerator.METHOD_FIELD_PREFIX + i,
+                        ProxyGenerator.METHOD_TYPE.getDescriptor(), null, null).visitEnd();
+            }
+
+            ProxyGenerator.staticInit(cw, proxyType, methods);
+
+            init(cw, proxyType, superType);
 
-        public InterceptorInvoker(Object target, Interceptor methodInterceptor)
+            for (int i = 0; i < methods.length; i++)
+            {
+                final Method method = methods[i];
+                if (ProxyUtils.isEqualsMethod(method))
+                {
+                    DelegatorProxyGenerator.equalsMethod(cw);
+                }
+                else if (ProxyUtils.isHashCode(method))
+                {
+                    DelegatorProxyGenerator.hashCodeMethod(cw);
+                }
+                else
+                {
+                    processMethod(cw, method, i, proxyType,
+                            ASMInvocation.getMethodInvocationClass(classLoader, method));
+                }
+            }
+
+            return cw.toByteArray();
+        }
+
+        private static void init(final ClassWriter cw, final Type proxyType, final Type superType)
         {
-            this.target = target;
-            this.methodInterceptor = methodInterceptor;
+            final GeneratorAdapter mg = new GeneratorAdapter(ACC_PUBLIC, new org.objectweb.asm.commons.Method("<init>",
+                    Type.VOID_TYPE, new Type[] { OBJECT_TYPE, INTERCEPTOR_TYPE }), null, null, cw);
+            // invoke super constructor:
+            mg.loadThis();
+            mg.invokeConstructor(superType, org.objectweb.asm.commons.Method.getMethod("void <init> ()"));
+
+            // assign target and interceptor:
+            mg.loadThis();
+            mg.loadArg(0);
+            mg.putField(proxyType, TARGET_NAME, OBJECT_TYPE);
+            mg.loadThis();
+            mg.loadArg(1);
+            mg.putField(proxyType, INTERCEPTOR_NAME, INTERCEPTOR_TYPE);
+            mg.returnValue();
+            mg.endMethod();
         }
 
-        @Override
-        public Object invokeImpl(Object proxy, Method method, Object[] args) throws Throwable
+        private static void processMethod(final ClassWriter cw, final Method method, final int methodIndex,
+                final Type proxyType, final Class<?> invocationClass)
         {
-            final ReflectionInvocation invocation = new ReflectionInvocation(target, proxy, method, args);
-            return methodInterceptor.intercept(invocation);
+            final int access = (ACC_PUBLIC | ACC_PROTECTED) & method.getModifiers();
+            final org.objectweb.asm.commons.Method m = org.objectweb.asm.commons.Method.getMethod(method);
+            final GeneratorAdapter mg = new GeneratorAdapter(access, m, null, getTypes(method.getExceptionTypes()),
+                    cw);
+            final Type invocationType = Type.getType(invocationClass);
+
+            // the following code generates bytecode equivalent to:
+            // return ((<returntype>) interceptor.intercept(new <invocation>(this, target, __method<i>,
+            // new Object[] { <function arguments> })))[.<primitive>Value()];
+
+            mg.loadThis();
+            mg.getField(proxyType, INTERCEPTOR_NAME, INTERCEPTOR_TYPE);
+
+            mg.newInstance(invocationType);
+            mg.dup();
+            mg.loadThis();
+            mg.loadThis();
+            mg.getField(proxyType, TARGET_NAME, OBJECT_TYPE);
+            mg.getStatic(proxyType, ProxyGenerator.METHOD_FIELD_PREFIX + methodIndex, ProxyGenerator.METHOD_TYPE);
+            mg.loadArgArray();
+            mg.invokeConstructor(invocationType, ASMInvocation.getConstructor());
+
+            mg.invokeInterface(INTERCEPTOR_TYPE, org.objectweb.asm.commons.Method
+                    .getMethod("Object intercept(org.apache.commons.proxy2.Invocation)"));
+
+            // cast the result
+            mg.unbox(m.getReturnType());
+
+            // push return
+            mg.returnValue();
+            mg.endMethod();
         }
     }
 
@@ -386,11 +704,12 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
         {
-            if (isHashCode(method))
+            final MethodMetadata metadata = MethodMetadata.of(method);
+            if (metadata.isHashCode())
             {
                 return Integer.valueOf(System.identityHashCode(proxy));
             }
-            if (isEqualsMethod(method))
+            if (metadata.isEquals())
             {
                 return Boolean.valueOf(proxy == args[0]);
             }
@@ -428,52 +747,4 @@ public class ASMProxyFactory extends AbstractSubclassingProxyFactory
         return "equals".equals(method.getName()) && Boolean.TYPE.equals(method.getReturnType())
                 && method.getParameterTypes().length == 1 && Object.class.equals(method.getParameterTypes()[0]);
     }
-
-    private static class ReflectionInvocation implements Invocation
-    {
-        private final Method method;
-        private final Object[] arguments;
-        private final Object proxy;
-        private final Object target;
-
-        public ReflectionInvocation(final Object target, final Object proxy, final Method method,
-                final Object[] arguments)
-        {
-            this.method = method;
-            this.arguments = ObjectUtils.defaultIfNull(ArrayUtils.clone(arguments), ProxyUtils.EMPTY_ARGUMENTS);
-            this.proxy = proxy;
-            this.target = target;
-        }
-
-        @Override
-        public Object[] getArguments()
-        {
-            return arguments;
-        }
-
-        @Override
-        public Method getMethod()
-        {
-            return method;
-        }
-
-        @Override
-        public Object getProxy()
-        {
-            return proxy;
-        }
-
-        @Override
-        public Object proceed() throws Throwable
-        {
-            try
-            {
-                return method.invoke(target, arguments);
-            }
-            catch (InvocationTargetException e)
-            {
-                throw e.getTargetException();
-            }
-        }
-    }
 }
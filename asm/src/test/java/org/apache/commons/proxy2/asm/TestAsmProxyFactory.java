@@ -16,8 +16,43 @@
  */
 package org.apache.commons.proxy2.asm;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Field;
+
 import org.apache.commons.proxy2.AbstractSubclassingProxyFactoryTestCase;
+import org.apache.commons.proxy2.impl.ProxyConstructorCache;
+import org.apache.commons.proxy2.invoker.NullInvoker;
+import org.apache.commons.proxy2.util.DuplicateEcho;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
 
 public class TestAsmProxyFactory extends AbstractSubclassingProxyFactoryTestCase
 {
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testInvocationClassCaching() throws Exception
+    {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final Class<?> invocationClass = ASMInvocation.getMethodInvocationClass(classLoader,
+                Echo.class.getMethod("echoBack", String.class));
+        assertSame(invocationClass, ASMInvocation.getMethodInvocationClass(classLoader,
+                Echo.class.getMethod("echoBack", String.class)));
+        assertNotSame(invocationClass, ASMInvocation.getMethodInvocationClass(classLoader,
+                DuplicateEcho.class.getMethod("echoBack", String.class)));
+    }
+
+    @Test
+    public void testProxyClassKeepsConstructor() throws Exception
+    {
+        final Echo proxy = factory.createInvokerProxy(NullInvoker.INSTANCE, Echo.class);
+        final Field field = proxy.getClass().getDeclaredField(ProxyConstructorCache.CONSTRUCTOR_FIELD_NAME);
+        field.setAccessible(true);
+        assertNotNull(field.get(null));
+    }
 }
@@ -18,12 +18,18 @@
 package org.apache.commons.proxy2.cglib;
 
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 
+import net.sf.cglib.core.ReflectUtils;
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.CallbackFilter;
 import net.sf.cglib.proxy.Dispatcher;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
@@ -34,7 +40,12 @@ import org.apache.commons.proxy2.Invocation;
 import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
 import org.apache.commons.proxy2.ProxyUtils;
+import org.apache.commons.proxy2.impl.AbstractProxyClassGenerator;
 import org.apache.commons.proxy2.impl.AbstractSubclassingProxyFactory;
+import org.apache.commons.proxy2.impl.ConcurrentWeakIdentityMap;
+import org.apache.commons.proxy2.impl.ProxyClassCache;
+import org.apache.commons.proxy2.invoker.BoundMethod;
+import org.apache.commons.proxy2.invoker.BoundMethodInvoker;
 
 /**
  * Cglib-based {@link org.apache.commons.proxy2.ProxyFactory ProxyFactory} implementation.
@@ -46,6 +57,74 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
     //******************************************************************************************************************
 
     private static final CallbackFilter CALLBACKFILTER = new CglibProxyFactoryCallbackFilter();
+    private static final Callback EQUALS_HANDLER = new EqualsHandler();
+    private static final Callback HASH_CODE_HANDLER = new HashCodeHandler();
+
+    private static final ProxyClassCache DELEGATOR_PROXY_CACHE = new ProxyClassCache(new CglibProxyClassGenerator(
+            Dispatcher.class));
+    /**
+     * Interceptor and invoker proxies both take a {@link MethodInterceptor}, so they share their classes.
+     */
+    private static final ProxyClassCache METHOD_INTERCEPTOR_PROXY_CACHE = new ProxyClassCache(
+            new CglibProxyClassGenerator(MethodInterceptor.class));
+
+    /**
+     * Callback-less instances of the generated proxy classes, used to create new proxies through
+     * {@link Factory#newInstance(Callback[])}. They are softly referenced, because they reference their classes.
+     */
+    private static final ConcurrentWeakIdentityMap<Class<?>, PrototypeEntry> PROTOTYPES
+        = new ConcurrentWeakIdentityMap<Class<?>, PrototypeEntry>();
+
+    /**
+     * {@link BoundMethod}s handed to {@link BoundMethodInvoker}s, bound once per {@link MethodProxy}.
+     */
+    private static final ConcurrentWeakIdentityMap<MethodProxy, BoundMethod> BOUND_METHODS
+        = new ConcurrentWeakIdentityMap<MethodProxy, BoundMethod>();
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    private static <T> T createProxy(ProxyClassCache proxyClassCache, ClassLoader classLoader,
+            Class<?>[] proxyClasses, Callback callback)
+    {
+        final Class<?> proxyClass = proxyClassCache.getProxyClass(classLoader, proxyClasses);
+        @SuppressWarnings("unchecked") // type inference
+        final T result = (T) getPrototype(proxyClass).newInstance(
+                new Callback[] { callback, EQUALS_HANDLER, HASH_CODE_HANDLER });
+        return result;
+    }
+
+    private static BoundMethod getBoundMethod(MethodProxy methodProxy)
+    {
+        BoundMethod boundMethod = BOUND_METHODS.get(methodProxy);
+        if (boundMethod == null)
+        {
+            final BoundMethod newBoundMethod = new MethodProxyBoundMethod(methodProxy);
+            boundMethod = BOUND_METHODS.putIfAbsent(methodProxy, newBoundMethod);
+            if (boundMethod == null)
+            {
+                boundMethod = newBoundMethod;
+            }
+        }
+        return boundMethod;
+    }
+
+    private static Factory getPrototype(Class<?> proxyClass)
+    {
+        PrototypeEntry entry = PROTOTYPES.get(proxyClass);
+        if (entry == null)
+        {
+            final PrototypeEntry newEntry = new PrototypeEntry();
+            entry = PROTOTYPES.putIfAbsent(proxyClass, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
+        }
+        final Factory prototype = entry.get();
+        return prototype == null ? entry.create(proxyClass) : prototype;
+    }
 
     //******************************************************************************************************************
     // ProxyFactory Implementation
@@ -58,16 +137,8 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
     public <T> T createDelegatorProxy(ClassLoader classLoader, ObjectProvider<?> targetProvider,
             Class<?>... proxyClasses)
     {
-        final Enhancer enhancer = new Enhancer();
-        enhancer.setClassLoader(classLoader);
-        enhancer.setInterfaces(toInterfaces(proxyClasses));
-        enhancer.setSuperclass(getSuperclass(proxyClasses));
-        enhancer.setCallbackFilter(CALLBACKFILTER);
-        enhancer.setCallbacks(new Callback[] { new ObjectProviderDispatcher(targetProvider), new EqualsHandler(),
-                new HashCodeHandler() });
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) enhancer.create();
-        return result;
+        return createProxy(DELEGATOR_PROXY_CACHE, classLoader, proxyClasses, new ObjectProviderDispatcher(
+                targetProvider));
     }
 
     /**
@@ -77,16 +148,8 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
     public <T> T createInterceptorProxy(ClassLoader classLoader, Object target, Interceptor interceptor,
             Class<?>... proxyClasses)
     {
-        final Enhancer enhancer = new Enhancer();
-        enhancer.setClassLoader(classLoader);
-        enhancer.setInterfaces(toInterfaces(proxyClasses));
-        enhancer.setSuperclass(getSuperclass(proxyClasses));
-        enhancer.setCallbackFilter(CALLBACKFILTER);
-        enhancer.setCallbacks(new Callback[] { new InterceptorBridge(target, interceptor), new EqualsHandler(),
-                new HashCodeHandler() });
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) enhancer.create();
-        return result;
+        return createProxy(METHOD_INTERCEPTOR_PROXY_CACHE, classLoader, proxyClasses, new InterceptorBridge(target,
+                interceptor));
     }
 
     /**
@@ -95,22 +158,65 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
     @Override
     public <T> T createInvokerProxy(ClassLoader classLoader, Invoker invoker, Class<?>... proxyClasses)
     {
-        final Enhancer enhancer = new Enhancer();
-        enhancer.setClassLoader(classLoader);
-        enhancer.setInterfaces(toInterfaces(proxyClasses));
-        enhancer.setSuperclass(getSuperclass(proxyClasses));
-        enhancer.setCallbackFilter(CALLBACKFILTER);
-        enhancer.setCallbacks(
-                new Callback[] { new InvokerBridge(invoker), new EqualsHandler(), new HashCodeHandler() });
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) enhancer.create();
-        return result;
+        return createProxy(METHOD_INTERCEPTOR_PROXY_CACHE, classLoader, proxyClasses, new InvokerBridge(invoker));
     }
 
     //******************************************************************************************************************
     // Inner Classes
     //******************************************************************************************************************
 
+    /**
+     * Generates proxy classes taking a callback of the specified type for all methods but {@link Object#equals(Object)}
+     * and {@link Object#hashCode()}. Classes are cached by {@link ProxyClassCache} rather than by cglib.
+     */
+    private static class CglibProxyClassGenerator extends AbstractProxyClassGenerator
+    {
+        private final Class<?>[] callbackTypes;
+
+        CglibProxyClassGenerator(Class<? extends Callback> callbackType)
+        {
+            this.callbackTypes = new Class[] { callbackType, MethodInterceptor.class, MethodInterceptor.class };
+        }
+
+        @Override
+        public Class<?> generateProxyClass(ClassLoader classLoader, Class<?>... proxyClasses)
+        {
+            final Enhancer enhancer = new Enhancer();
+            enhancer.setClassLoader(classLoader);
+            enhancer.setInterfaces(toInterfaces(proxyClasses));
+            enhancer.setSuperclass(getSuperclass(proxyClasses));
+            enhancer.setCallbackFilter(CALLBACKFILTER);
+            enhancer.setCallbackTypes(callbackTypes);
+            enhancer.setUseCache(false);
+            return enhancer.createClass();
+        }
+    }
+
+    /**
+     * Holds a soft reference to the prototype instance of a proxy class.
+     */
+    private static final class PrototypeEntry
+    {
+        private volatile Reference<Factory> prototypeReference;
+
+        Factory get()
+        {
+            final Reference<Factory> ref = prototypeReference;
+            return ref == null ? null : ref.get();
+        }
+
+        synchronized Factory create(Class<?> proxyClass)
+        {
+            Factory prototype = get();
+            if (prototype == null)
+            {
+                prototype = (Factory) ReflectUtils.newInstance(proxyClass);
+                prototypeReference = new SoftReference<Factory>(prototype);
+            }
+            return prototype;
+        }
+    }
+
     private static class CglibProxyFactoryCallbackFilter implements CallbackFilter
     {
         @Override
@@ -176,7 +282,12 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
         }
     }
 
-    private static class InvokerBridge implements net.sf.cglib.proxy.InvocationHandler, Serializable
+    /**
+     * Bridges to an {@link Invoker}, passing a {@link BoundMethod} backed by the {@link MethodProxy} to a
+     * {@link BoundMethodInvoker}. Checked exceptions not declared by the invoked method are wrapped in an
+     * {@link UndeclaredThrowableException}, as {@link java.lang.reflect.Proxy} does.
+     */
+    private static class InvokerBridge implements MethodInterceptor, Serializable
     {
         /** Serialization version */
         private static final long serialVersionUID = 1L;
@@ -189,9 +300,60 @@ public class CglibProxyFactory extends AbstractSubclassingProxyFactory
         }
 
         @Override
-        public Object invoke(Object object, Method method, Object[] objects) throws Throwable
+        public Object intercept(Object object, Method method, Object[] args, MethodProxy methodProxy) throws Throwable
         {
-            return original.invoke(object, method, objects);
+            try
+            {
+                if (original instanceof BoundMethodInvoker)
+                {
+                    return ((BoundMethodInvoker) original).invoke(object, method, getBoundMethod(methodProxy), args);
+                }
+                return original.invoke(object, method, args);
+            }
+            catch (RuntimeException e)
+            {
+                throw e;
+            }
+            catch (Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                for (Class<?> exceptionType : method.getExceptionTypes())
+                {
+                    if (exceptionType.isInstance(t))
+                    {
+                        throw t;
+                    }
+                }
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+
+    /**
+     * A {@link BoundMethod} backed by a {@link MethodProxy}, shared by all invocations through that proxy. It holds
+     * the {@link MethodProxy} weakly, so that caching it in {@link #BOUND_METHODS} does not keep the proxy class alive;
+     * the proxy class, and hence the {@link MethodProxy} in its static field, remains reachable as long as any of its
+     * instances does.
+     */
+    private static final class MethodProxyBoundMethod extends WeakReference<MethodProxy> implements BoundMethod
+    {
+        MethodProxyBoundMethod(MethodProxy methodProxy)
+        {
+            super(methodProxy);
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] arguments) throws Throwable
+        {
+            final MethodProxy methodProxy = get();
+            if (methodProxy == null)
+            {
+                throw new IllegalStateException("Proxy class has been unloaded.");
+            }
+            return methodProxy.invoke(target, arguments);
         }
     }
 
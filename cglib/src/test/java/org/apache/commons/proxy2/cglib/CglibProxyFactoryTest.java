@@ -17,7 +17,24 @@
 
 package org.apache.commons.proxy2.cglib;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
 import org.apache.commons.proxy2.AbstractSubclassingProxyFactoryTestCase;
+import org.apache.commons.proxy2.Invoker;
+import org.apache.commons.proxy2.invoker.BoundMethod;
+import org.apache.commons.proxy2.invoker.BoundMethodInvoker;
+import org.apache.commons.proxy2.util.Echo;
+import org.apache.commons.proxy2.util.EchoImpl;
+import org.apache.commons.proxy2.util.SuffixInterceptor;
+import org.junit.Test;
 
 public class CglibProxyFactoryTest extends AbstractSubclassingProxyFactoryTestCase
 {
@@ -28,4 +45,77 @@ public class CglibProxyFactoryTest extends AbstractSubclassingProxyFactoryTestCa
     public CglibProxyFactoryTest()
     {
     }
+
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testProxyClassCaching()
+    {
+        final Echo proxy1 = factory.createInterceptorProxy(new EchoImpl(), new SuffixInterceptor(" one"), Echo.class);
+        final Echo proxy2 = factory.createInterceptorProxy(new EchoImpl(), new SuffixInterceptor(" two"), Echo.class);
+        assertSame(proxy1.getClass(), proxy2.getClass());
+        assertEquals("hello one", proxy1.echoBack("hello"));
+        assertEquals("hello two", proxy2.echoBack("hello"));
+    }
+
+    @Test
+    public void testBoundMethodInvoker()
+    {
+        final EchoImpl target = new EchoImpl();
+        final Echo proxy = factory.createInvokerProxy(new BoundMethodInvoker()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+            {
+                throw new AssertionError("BoundMethod not supplied");
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, BoundMethod boundMethod, Object[] arguments)
+                    throws Throwable
+            {
+                assertNotNull(boundMethod);
+                return boundMethod.invoke(target, arguments);
+            }
+        }, Echo.class);
+        assertEquals("hello", proxy.echoBack("hello"));
+        assertEquals(3, proxy.echoBack(3));
+    }
+
+    @Test
+    public void testInvokerProxyWithUndeclaredCheckedException() throws Exception
+    {
+        final Echo proxy = factory.createInvokerProxy(new Invoker()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+            {
+                throw new IOException(method.getName());
+            }
+        }, Echo.class);
+        try
+        {
+            proxy.echo();
+            fail("Expected UndeclaredThrowableException");
+        }
+        catch (UndeclaredThrowableException e)
+        {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        try
+        {
+            proxy.ioException();
+            fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            assertEquals("ioException", e.getMessage());
+        }
+    }
 }
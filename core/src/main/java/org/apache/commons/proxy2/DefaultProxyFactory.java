@@ -19,9 +19,12 @@ package org.apache.commons.proxy2;
 import java.util.Arrays;
 import java.util.ServiceLoader;
 
+import org.apache.commons.proxy2.impl.ClassSetMap;
+
 /**
  * {@link ProxyFactory} implementation that delegates to the first discovered {@link ProxyFactory} service provider that
- * {@link #canProxy(Class...)}.
+ * {@link #canProxy(Class...)}. The provider selected for a given set of proxy classes is remembered, so that only the
+ * first request for a set of proxy classes scans the service providers.
  */
 class DefaultProxyFactory implements ProxyFactory
 {
@@ -30,20 +33,15 @@ class DefaultProxyFactory implements ProxyFactory
 
     private static final ServiceLoader<ProxyFactory> SERVICES = ServiceLoader.load(ProxyFactory.class);
 
+    private final ClassSetMap<ProxyFactory> capableProxyFactories = new ClassSetMap<ProxyFactory>();
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean canProxy(Class<?>... proxyClasses)
     {
-        for (ProxyFactory proxyFactory : SERVICES)
-        {
-            if (proxyFactory.canProxy(proxyClasses))
-            {
-                return true;
-            }
-        }
-        return false;
+        return findCapableProxyFactory(proxyClasses) != null;
     }
 
     /**
@@ -120,13 +118,33 @@ class DefaultProxyFactory implements ProxyFactory
 
     private ProxyFactory getCapableProxyFactory(Class<?>... proxyClasses)
     {
-        for (ProxyFactory proxyFactory : SERVICES)
+        final ProxyFactory result = findCapableProxyFactory(proxyClasses);
+        if (result == null)
+        {
+            throw new IllegalArgumentException("Could not proxy " + Arrays.toString(proxyClasses));
+        }
+        return result;
+    }
+
+    private ProxyFactory findCapableProxyFactory(Class<?>... proxyClasses)
+    {
+        final ProxyFactory cached = capableProxyFactories.get(proxyClasses);
+        if (cached != null)
+        {
+            return cached;
+        }
+        // ServiceLoader iteration is not thread-safe:
+        synchronized (SERVICES)
         {
-            if (proxyFactory.canProxy(proxyClasses))
+            for (ProxyFactory proxyFactory : SERVICES)
             {
-                return proxyFactory;
+                if (proxyFactory.canProxy(proxyClasses))
+                {
+                    final ProxyFactory previous = capableProxyFactories.putIfAbsent(proxyClasses, proxyFactory);
+                    return previous == null ? proxyFactory : previous;
+                }
             }
         }
-        throw new IllegalArgumentException("Could not proxy " + Arrays.toString(proxyClasses));
+        return null;
     }
 }
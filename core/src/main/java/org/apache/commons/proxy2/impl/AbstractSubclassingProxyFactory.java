@@ -30,6 +30,13 @@ import org.apache.commons.proxy2.exception.ProxyFactoryException;
  */
 public abstract class AbstractSubclassingProxyFactory extends AbstractProxyFactory
 {
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final ConcurrentWeakIdentityMap<Class<?>, Capabilities> CAPABILITIES
+        = new ConcurrentWeakIdentityMap<Class<?>, Capabilities>();
+
     //******************************************************************************************************************
     // ProxyFactory Implementation
     //******************************************************************************************************************
@@ -44,21 +51,53 @@ public abstract class AbstractSubclassingProxyFactory extends AbstractProxyFacto
     @Override
     public boolean canProxy(Class<?>... proxyClasses)
     {
-        try
-        {
-            getSuperclass(proxyClasses);
-            return true;
-        }
-        catch (ProxyFactoryException e)
-        {
-            return false;
-        }
+        return findSuperclass(proxyClasses) != null;
     }
 
     //******************************************************************************************************************
     // Other Methods
     //******************************************************************************************************************
 
+    private static Capabilities getCapabilities(Class<?> proxyClass)
+    {
+        Capabilities capabilities = CAPABILITIES.get(proxyClass);
+        if (capabilities == null)
+        {
+            capabilities = new Capabilities(proxyClass);
+            CAPABILITIES.putIfAbsent(proxyClass, capabilities);
+        }
+        return capabilities;
+    }
+
+    /**
+     * Find the superclass for <code>proxyClasses</code> without building exceptions.
+     * 
+     * @param proxyClasses
+     * @return {@link Object}, the single non-interface class, or <code>null</code> if no suitable superclass exists
+     */
+    private static Class<?> findSuperclass(Class<?>[] proxyClasses)
+    {
+        Class<?> superclass = null;
+        for (Class<?> proxyClass : proxyClasses)
+        {
+            final Capabilities capabilities = getCapabilities(proxyClass);
+            if (capabilities.isInterface)
+            {
+                continue;
+            }
+            if (superclass != null && superclass != proxyClass)
+            {
+                return null;
+            }
+            if (!capabilities.isExtensible)
+            {
+                return null;
+            }
+            superclass = proxyClass;
+        }
+        return superclass == null ? Object.class : superclass;
+    }
+
     private static boolean hasSuitableDefaultConstructor(Class<?> superclass)
     {
         final Constructor<?>[] declaredConstructors = superclass.getDeclaredConstructors();
@@ -125,6 +164,12 @@ public abstract class AbstractSubclassingProxyFactory extends AbstractProxyFacto
      */
     public static Class<?> getSuperclass(Class<?>[] proxyClasses)
     {
+        final Class<?> result = findSuperclass(proxyClasses);
+        if (result != null)
+        {
+            return result;
+        }
+        // slow path, only to report the problem:
         final Class<?>[] superclasses = toNonInterfaces(proxyClasses);
         switch (superclasses.length)
         {
@@ -158,4 +203,25 @@ public abstract class AbstractSubclassingProxyFactory extends AbstractProxyFacto
             throw new ProxyFactoryException(errorMessage.toString());
         }
     }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * What we need to know about a proxy class, computed once. Must not reference the class itself, as it is cached
+     * against it.
+     */
+    private static final class Capabilities
+    {
+        final boolean isInterface;
+        final boolean isExtensible;
+
+        Capabilities(Class<?> proxyClass)
+        {
+            this.isInterface = proxyClass.isInterface();
+            this.isExtensible = !isInterface && !Modifier.isFinal(proxyClass.getModifiers())
+                    && hasSuitableDefaultConstructor(proxyClass);
+        }
+    }
 }
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An immutable, unordered set of classes, typically the proxy classes of a proxy. The hash code is computed once, and
+ * instances can be compared against a raw <code>Class[]</code> without wrapping it, see {@link #matches(Class[])} and
+ * {@link #hashCode(Class[])}. Member classes are weakly referenced, so a {@link ClassSet} used as a cache key does not
+ * keep their {@link ClassLoader}s alive; once any member has been collected the set is {@link #isStale() stale} and
+ * matches nothing.
+ * <p>
+ * An {@link #ofOrdered(Class...) ordered} instance instead matches only the same classes in the same order, duplicates
+ * included, for keying results that depend on the order of the proxy classes.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class ClassSet
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private final Reference<Class<?>>[] classes;
+    private final boolean ordered;
+    private final int hashCode;
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Compute the hash code a {@link ClassSet} of <code>classes</code> would have, without creating it. Order and
+     * duplicates are irrelevant.
+     *
+     * @param classes
+     * @return int
+     */
+    public static int hashCode(Class<?>[] classes)
+    {
+        int result = 0;
+        for (int i = 0; i < classes.length; i++)
+        {
+            if (indexOf(classes, classes[i], i) < 0)
+            {
+                result += classes[i].hashCode();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute the hash code an {@link #ofOrdered(Class...) ordered} {@link ClassSet} of <code>classes</code> would
+     * have, without creating it.
+     *
+     * @param classes
+     * @return int
+     */
+    public static int orderedHashCode(Class<?>[] classes)
+    {
+        int result = 1;
+        for (Class<?> c : classes)
+        {
+            result = 31 * result + c.hashCode();
+        }
+        return result;
+    }
+
+    /**
+     * Create a {@link ClassSet} of the specified classes.
+     *
+     * @param classes
+     * @return ClassSet
+     */
+    public static ClassSet of(Class<?>... classes)
+    {
+        return new ClassSet(Validate.noNullElements(classes, "null class at index %d"), false);
+    }
+
+    /**
+     * Create an ordered {@link ClassSet} of the specified classes, matching only the same classes in the same order.
+     *
+     * @param classes
+     * @return ClassSet
+     */
+    public static ClassSet ofOrdered(Class<?>... classes)
+    {
+        return new ClassSet(Validate.noNullElements(classes, "null class at index %d"), true);
+    }
+
+    private static int indexOf(Class<?>[] classes, Class<?> c, int limit)
+    {
+        for (int i = 0; i < limit; i++)
+        {
+            if (classes[i] == c)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(Reference<Class<?>>[] references, Class<?> c)
+    {
+        for (int i = 0; i < references.length; i++)
+        {
+            if (references[i].get() == c)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    @SuppressWarnings("unchecked") // generic array creation
+    private ClassSet(Class<?>[] classes, boolean ordered)
+    {
+        this.classes = new Reference[classes.length];
+        for (int i = 0; i < classes.length; i++)
+        {
+            this.classes[i] = new WeakReference<Class<?>>(classes[i]);
+        }
+        this.ordered = ordered;
+        this.hashCode = ordered ? orderedHashCode(classes) : hashCode(classes);
+    }
+
+    //******************************************************************************************************************
+    // Methods
+    //******************************************************************************************************************
+
+    /**
+     * Learn whether <code>classes</code> contains exactly the members of this {@link ClassSet}, in any order unless
+     * this {@link ClassSet} is {@link #isOrdered() ordered}.
+     *
+     * @param classes
+     * @return boolean
+     */
+    public boolean matches(Class<?>[] classes)
+    {
+        if (ordered)
+        {
+            if (classes.length != this.classes.length)
+            {
+                return false;
+            }
+            for (int i = 0; i < classes.length; i++)
+            {
+                if (this.classes[i].get() != classes[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (Class<?> c : classes)
+        {
+            if (indexOf(this.classes, c) < 0)
+            {
+                return false;
+            }
+        }
+        for (Reference<Class<?>> ref : this.classes)
+        {
+            final Class<?> c = ref.get();
+            if (c == null || indexOf(classes, c, classes.length) < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Learn whether this {@link ClassSet} matches only the same classes in the same order.
+     *
+     * @return boolean
+     */
+    public boolean isOrdered()
+    {
+        return ordered;
+    }
+
+    /**
+     * Learn whether any member class of this {@link ClassSet} has been garbage collected.
+     *
+     * @return boolean
+     */
+    public boolean isStale()
+    {
+        for (Reference<Class<?>> ref : classes)
+        {
+            if (ref.get() == null)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //******************************************************************************************************************
+    // Canonical Methods
+    //******************************************************************************************************************
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o == this)
+        {
+            return true;
+        }
+        if (!(o instanceof ClassSet))
+        {
+            return false;
+        }
+        final ClassSet other = (ClassSet) o;
+        if (other.ordered != ordered || other.hashCode != hashCode)
+        {
+            return false;
+        }
+        final Class<?>[] otherClasses = new Class[other.classes.length];
+        for (int i = 0; i < otherClasses.length; i++)
+        {
+            otherClasses[i] = other.classes[i].get();
+            if (otherClasses[i] == null)
+            {
+                return false;
+            }
+        }
+        return matches(otherClasses);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode()
+    {
+        return hashCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final Class<?>[] result = new Class[classes.length];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = classes[i].get();
+        }
+        return Arrays.toString(result);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A thread-safe map keyed by {@link ClassSet}, optimized for a high read to write ratio. Lookups are lock-free and do
+ * not allocate: they take the raw <code>Class[]</code> and walk immutable bucket chains. Writes hold the map's monitor
+ * and publish a new chain for the affected bucket; the table itself is copied only when it grows. Mappings whose
+ * {@link ClassSet} has become {@link ClassSet#isStale() stale} are dropped from the chains a write rebuilds and from
+ * the table when it grows. An ordered map distinguishes the order of the classes, see
+ * {@link ClassSet#ofOrdered(Class...)}.
+ *
+ * @param <V> value type
+ * @since 2.1
+ */
+public class ClassSetMap<V>
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean ordered;
+    private volatile AtomicReferenceArray<Node<V>> table = new AtomicReferenceArray<Node<V>>(INITIAL_CAPACITY);
+    private int size;
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    /**
+     * Create a new, unordered ClassSetMap instance.
+     */
+    public ClassSetMap()
+    {
+        this(false);
+    }
+
+    /**
+     * Create a new ClassSetMap instance.
+     *
+     * @param ordered whether keys match only the same classes in the same order
+     */
+    public ClassSetMap(boolean ordered)
+    {
+        this.ordered = ordered;
+    }
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    private static int indexFor(int hash, int length)
+    {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    //******************************************************************************************************************
+    // Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the value mapped to the set of <code>classes</code>, in any order unless this map is ordered.
+     *
+     * @param classes
+     * @return V or <code>null</code>
+     */
+    public V get(Class<?>[] classes)
+    {
+        final int hash = ordered ? ClassSet.orderedHashCode(classes) : ClassSet.hashCode(classes);
+        final AtomicReferenceArray<Node<V>> tab = table;
+        for (Node<V> node = tab.get(indexFor(hash, tab.length())); node != null; node = node.next)
+        {
+            if (node.key.hashCode() == hash && node.key.matches(classes))
+            {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Map <code>value</code> to the set of <code>classes</code> unless a mapping already exists.
+     *
+     * @param classes
+     * @param value
+     * @return the value previously mapped, or <code>null</code> if <code>value</code> was stored
+     */
+    public synchronized V putIfAbsent(Class<?>[] classes, V value)
+    {
+        final V existing = get(classes);
+        if (existing != null)
+        {
+            return existing;
+        }
+        insert(ordered ? ClassSet.ofOrdered(classes) : ClassSet.of(classes), value);
+        return null;
+    }
+
+    /**
+     * Get the number of mappings, including any that have become stale since the last write.
+     *
+     * @return int
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Insert a new node at the head of its bucket, growing the table first if necessary.
+     */
+    private void insert(ClassSet key, V value)
+    {
+        AtomicReferenceArray<Node<V>> tab = table;
+        if ((size + 1) * 4 > tab.length() * 3)
+        {
+            tab = resize(tab);
+        }
+        final int index = indexFor(key.hashCode(), tab.length());
+        tab.set(index, new Node<V>(key, value, dropStale(tab.get(index))));
+        size++;
+    }
+
+    /**
+     * Copy all live nodes into a table of twice the size, and publish it.
+     */
+    private AtomicReferenceArray<Node<V>> resize(AtomicReferenceArray<Node<V>> oldTable)
+    {
+        final AtomicReferenceArray<Node<V>> newTable = new AtomicReferenceArray<Node<V>>(oldTable.length() * 2);
+        int newSize = 0;
+        for (int i = 0; i < oldTable.length(); i++)
+        {
+            for (Node<V> node = oldTable.get(i); node != null; node = node.next)
+            {
+                if (!node.key.isStale())
+                {
+                    final int index = indexFor(node.key.hashCode(), newTable.length());
+                    newTable.set(index, new Node<V>(node.key, node.value, newTable.get(index)));
+                    newSize++;
+                }
+            }
+        }
+        size = newSize;
+        table = newTable;
+        return newTable;
+    }
+
+    /**
+     * Get a chain without the stale nodes of <code>head</code>, copying the nodes ahead of the last stale one.
+     */
+    private Node<V> dropStale(Node<V> head)
+    {
+        Node<V> lastStale = null;
+        for (Node<V> node = head; node != null; node = node.next)
+        {
+            if (node.key.isStale())
+            {
+                lastStale = node;
+            }
+        }
+        if (lastStale == null)
+        {
+            return head;
+        }
+        Node<V> newHead = lastStale.next;
+        size--;
+        for (Node<V> node = head; node != lastStale; node = node.next)
+        {
+            if (node.key.isStale())
+            {
+                size--;
+            }
+            else
+            {
+                newHead = new Node<V>(node.key, node.value, newHead);
+            }
+        }
+        return newHead;
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    private static final class Node<V>
+    {
+        final ClassSet key;
+        final V value;
+        final Node<V> next;
+
+        Node(ClassSet key, V value, Node<V> next)
+        {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A thread-safe map with weakly referenced keys compared by identity, for caching information about {@link Class}es,
+ * {@link ClassLoader}s and the like without keeping them alive. Lookups neither lock nor allocate: they walk immutable
+ * bucket chains, comparing {@link System#identityHashCode(Object) identity hash codes} and referents. Writes hold the
+ * map's monitor. Entries whose keys have been collected are removed on the next write.
+ * <p>
+ * As with {@link java.util.WeakHashMap}, values must not strongly reference their keys, or the keys will never be
+ * collected.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 2.1
+ */
+public class ConcurrentWeakIdentityMap<K, V>
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReferenceQueue<K> staleKeys = new ReferenceQueue<K>();
+    private volatile AtomicReferenceArray<Node<K, V>> table = new AtomicReferenceArray<Node<K, V>>(INITIAL_CAPACITY);
+    private int size;
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    private static int indexFor(int hash, int length)
+    {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    //******************************************************************************************************************
+    // Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the value mapped to <code>key</code>.
+     *
+     * @param key
+     * @return V or <code>null</code>
+     */
+    public V get(K key)
+    {
+        if (key == null)
+        {
+            return null;
+        }
+        final int hash = System.identityHashCode(key);
+        final AtomicReferenceArray<Node<K, V>> tab = table;
+        for (Node<K, V> node = tab.get(indexFor(hash, tab.length())); node != null; node = node.next)
+        {
+            if (node.hash == hash && node.get() == key)
+            {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Map <code>value</code> to <code>key</code> unless a mapping already exists.
+     *
+     * @param key
+     * @param value
+     * @return the value previously mapped, or <code>null</code> if <code>value</code> was stored
+     */
+    public synchronized V putIfAbsent(K key, V value)
+    {
+        Validate.notNull(key, "key");
+        Validate.notNull(value, "value");
+        expungeStaleKeys();
+        final V existing = get(key);
+        if (existing == null)
+        {
+            insert(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Map <code>value</code> to <code>key</code>, replacing any existing mapping.
+     *
+     * @param key
+     * @param value
+     * @return the value previously mapped, or <code>null</code>
+     */
+    public synchronized V put(K key, V value)
+    {
+        Validate.notNull(key, "key");
+        Validate.notNull(value, "value");
+        expungeStaleKeys();
+        final V existing = get(key);
+        if (existing != null)
+        {
+            removeKey(key);
+        }
+        insert(key, value);
+        return existing;
+    }
+
+    /**
+     * Get the number of mappings, including any whose keys have been collected since the last write.
+     *
+     * @return int
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    private void expungeStaleKeys()
+    {
+        for (Reference<? extends K> ref = staleKeys.poll(); ref != null; ref = staleKeys.poll())
+        {
+            removeNode((Node<?, ?>) ref);
+        }
+    }
+
+    /**
+     * Insert a new node at the head of its bucket, growing the table first if necessary.
+     */
+    private void insert(K key, V value)
+    {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        if ((size + 1) * 4 > tab.length() * 3)
+        {
+            tab = resize(tab);
+        }
+        final int hash = System.identityHashCode(key);
+        final int index = indexFor(hash, tab.length());
+        tab.set(index, new Node<K, V>(key, hash, value, tab.get(index), staleKeys));
+        size++;
+    }
+
+    /**
+     * Copy all live nodes into a table of twice the size, and publish it.
+     */
+    private AtomicReferenceArray<Node<K, V>> resize(AtomicReferenceArray<Node<K, V>> oldTable)
+    {
+        final AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<Node<K, V>>(oldTable.length() * 2);
+        int newSize = 0;
+        for (int i = 0; i < oldTable.length(); i++)
+        {
+            for (Node<K, V> node = oldTable.get(i); node != null; node = node.next)
+            {
+                final K key = node.get();
+                if (key != null)
+                {
+                    final int index = indexFor(node.hash, newTable.length());
+                    newTable.set(index, new Node<K, V>(key, node.hash, node.value, newTable.get(index), staleKeys));
+                    newSize++;
+                }
+            }
+        }
+        size = newSize;
+        table = newTable;
+        return newTable;
+    }
+
+    private void removeKey(K key)
+    {
+        final AtomicReferenceArray<Node<K, V>> tab = table;
+        final int index = indexFor(System.identityHashCode(key), tab.length());
+        for (Node<K, V> node = tab.get(index); node != null; node = node.next)
+        {
+            if (node.get() == key)
+            {
+                unlink(tab, index, node);
+                return;
+            }
+        }
+    }
+
+    private void removeNode(Node<?, ?> stale)
+    {
+        final AtomicReferenceArray<Node<K, V>> tab = table;
+        final int index = indexFor(stale.hash, tab.length());
+        for (Node<K, V> node = tab.get(index); node != null; node = node.next)
+        {
+            if (node == stale)
+            {
+                unlink(tab, index, node);
+                return;
+            }
+        }
+        // not found: already dropped by a resize or an earlier unlink
+    }
+
+    /**
+     * Replace the bucket chain by one without <code>target</code>, copying the nodes ahead of it. Stale nodes among
+     * them are dropped as well.
+     */
+    private void unlink(AtomicReferenceArray<Node<K, V>> tab, int index, Node<K, V> target)
+    {
+        Node<K, V> newHead = target.next;
+        size--;
+        for (Node<K, V> node = tab.get(index); node != target; node = node.next)
+        {
+            final K key = node.get();
+            if (key == null)
+            {
+                size--;
+            }
+            else
+            {
+                newHead = new Node<K, V>(key, node.hash, node.value, newHead, staleKeys);
+            }
+        }
+        tab.set(index, newHead);
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Immutable chain node holding its key weakly.
+     */
+    private static final class Node<K, V> extends WeakReference<K>
+    {
+        final int hash;
+        final V value;
+        final Node<K, V> next;
+
+        Node(K key, int hash, V value, Node<K, V> next, ReferenceQueue<K> queue)
+        {
+            super(key, queue);
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Immutable facts about a {@link Method} that proxies and invokers consult on every call. Each {@link Method} instance
+ * is classified once; afterwards {@link #of(Method)} is a lock-free identity lookup, sparing the name comparisons and
+ * {@link Method#getParameterTypes()} copies otherwise needed to recognize {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}.
+ * <p>
+ * Proxy classes pass the same {@link Method} instances to their handlers on every call, so those hit the cache. The
+ * cache holds methods weakly; metadata does not reference its method. {@link Class#getMethods()} and the like return
+ * new copies on each call, so code inspecting such methods only once should not consult this class, but
+ * {@link org.apache.commons.proxy2.ProxyUtils#isEqualsMethod(Method)} and the like.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class MethodMetadata
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final int EQUALS = 1;
+    private static final int HASH_CODE = 1 << 1;
+    private static final int TO_STRING = 1 << 2;
+    private static final int DEFAULT = 1 << 3;
+    private static final int VOID = 1 << 4;
+    private static final int PRIMITIVE_RETURN = 1 << 5;
+
+    private static final ConcurrentWeakIdentityMap<Method, MethodMetadata> CACHE =
+            new ConcurrentWeakIdentityMap<Method, MethodMetadata>();
+
+    private final int flags;
+    private final int argumentCount;
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the {@link MethodMetadata} for <code>method</code>.
+     *
+     * @param method
+     * @return MethodMetadata
+     */
+    public static MethodMetadata of(Method method)
+    {
+        MethodMetadata result = CACHE.get(method);
+        if (result == null)
+        {
+            Validate.notNull(method, "method");
+            result = new MethodMetadata(method);
+            CACHE.putIfAbsent(method, result);
+        }
+        return result;
+    }
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    private MethodMetadata(Method method)
+    {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final Class<?> returnType = method.getReturnType();
+        final String name = method.getName();
+        int f = 0;
+        if (parameterTypes.length == 1 && "equals".equals(name) && Object.class.equals(parameterTypes[0]))
+        {
+            f |= EQUALS;
+        }
+        else if (parameterTypes.length == 0 && "hashCode".equals(name))
+        {
+            f |= HASH_CODE;
+        }
+        else if (parameterTypes.length == 0 && "toString".equals(name))
+        {
+            f |= TO_STRING;
+        }
+        final int modifiers = method.getModifiers();
+        if (method.getDeclaringClass().isInterface() && !Modifier.isAbstract(modifiers)
+                && !Modifier.isStatic(modifiers))
+        {
+            f |= DEFAULT;
+        }
+        if (Void.TYPE.equals(returnType))
+        {
+            f |= VOID;
+        }
+        else if (returnType.isPrimitive())
+        {
+            f |= PRIMITIVE_RETURN;
+        }
+        this.flags = f;
+        this.argumentCount = parameterTypes.length;
+    }
+
+    //******************************************************************************************************************
+    // Methods
+    //******************************************************************************************************************
+
+    /**
+     * Learn whether the method is/overrides {@link Object#equals(Object)}.
+     *
+     * @return boolean
+     */
+    public boolean isEquals()
+    {
+        return (flags & EQUALS) != 0;
+    }
+
+    /**
+     * Learn whether the method is/overrides {@link Object#hashCode()}.
+     *
+     * @return boolean
+     */
+    public boolean isHashCode()
+    {
+        return (flags & HASH_CODE) != 0;
+    }
+
+    /**
+     * Learn whether the method is/overrides {@link Object#toString()}.
+     *
+     * @return boolean
+     */
+    public boolean isToString()
+    {
+        return (flags & TO_STRING) != 0;
+    }
+
+    /**
+     * Learn whether the method is a default method, i.e. a non-abstract instance method declared by an interface.
+     *
+     * @return boolean
+     */
+    public boolean isDefault()
+    {
+        return (flags & DEFAULT) != 0;
+    }
+
+    /**
+     * Learn whether the method returns <code>void</code>.
+     *
+     * @return boolean
+     */
+    public boolean isVoid()
+    {
+        return (flags & VOID) != 0;
+    }
+
+    /**
+     * Learn whether the method returns a primitive value. <code>void</code> does not count.
+     *
+     * @return boolean
+     */
+    public boolean isPrimitiveReturn()
+    {
+        return (flags & PRIMITIVE_RETURN) != 0;
+    }
+
+    /**
+     * Get the number of arguments the method takes.
+     *
+     * @return int
+     */
+    public int getArgumentCount()
+    {
+        return argumentCount;
+    }
+}
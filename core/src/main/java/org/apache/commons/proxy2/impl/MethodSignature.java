@@ -18,7 +18,6 @@
 package org.apache.commons.proxy2.impl;
 
 import java.io.Serializable;
-import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.text.ParsePosition;
 import java.util.ArrayList;
@@ -30,12 +29,12 @@ import java.util.Map;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
- * A class for capturing the signature of a method (its name and parameter types).
+ * A class for capturing the signature of a method (its name and parameter types). Parameter types are resolved using
+ * the {@link ClassLoader} of the class passed to {@link #toMethod(Class)}.
  * 
  * @since 2.0
  */
@@ -102,7 +101,7 @@ public class MethodSignature implements Serializable
         }
     }
 
-    private static Pair<String, Class<?>[]> parse(String internal)
+    private static Pair<String, String[]> parse(String internal)
     {
         Validate.notBlank(internal, "Cannot parse blank method signature");
         final SignaturePosition pos = new SignaturePosition();
@@ -114,7 +113,7 @@ public class MethodSignature implements Serializable
         pos.setIndex(lparen + 1);
 
         boolean complete = false;
-        final List<Class<?>> params = new ArrayList<Class<?>>();
+        final List<String> params = new ArrayList<String>();
         while (pos.getIndex() < internal.length())
         {
             final char c = internal.charAt(pos.getIndex());
@@ -123,58 +122,50 @@ public class MethodSignature implements Serializable
                 pos.next();
                 continue;
             }
-            final Character k = Character.valueOf(c);
-            if (REVERSE_ABBREVIATIONS.containsKey(k))
-            {
-                params.add(REVERSE_ABBREVIATIONS.get(k));
-                pos.next();
-                continue;
-            }
             if (')' == c)
             {
                 complete = true;
                 pos.next();
                 break;
             }
-            try
-            {
-                params.add(parseType(internal, pos));
-            }
-            catch (ClassNotFoundException e)
-            {
-                throw new IllegalArgumentException(String.format("Method signature \"%s\" references unknown type",
-                        internal), e);
-            }
+            params.add(parseType(internal, pos));
         }
         Validate.isTrue(complete, "Method signature \"%s\" is incomplete", internal);
         Validate.isTrue(StringUtils.isBlank(internal.substring(pos.getIndex())),
                 "Method signature \"%s\" includes unrecognized content beyond end", internal);
 
-        return Pair.of(name, params.toArray(ArrayUtils.EMPTY_CLASS_ARRAY));
+        return Pair.of(name, params.toArray(ArrayUtils.EMPTY_STRING_ARRAY));
     }
 
-    private static Class<?> parseType(String internal, SignaturePosition pos) throws ClassNotFoundException
+    /**
+     * Parse a single type, returning its descriptor.
+     */
+    private static String parseType(String internal, SignaturePosition pos)
     {
         final int here = pos.getIndex();
         final char c = internal.charAt(here);
 
+        if (REVERSE_ABBREVIATIONS.containsKey(Character.valueOf(c)))
+        {
+            pos.next();
+            return String.valueOf(c);
+        }
         switch (c)
         {
         case '[':
             pos.next();
-            final Class<?> componentType = parseType(internal, pos);
-            return Array.newInstance(componentType, 0).getClass();
+            return '[' + parseType(internal, pos);
         case 'L':
             pos.next();
             final int type = pos.getIndex();
             final int semi = internal.indexOf(';', type);
             Validate.isTrue(semi > 0, "Type at index %d of method signature \"%s\" not terminated by semicolon",
                     Integer.valueOf(here), internal);
-            final String className = internal.substring(type, semi).replace('/', '.');
+            final String className = internal.substring(type, semi);
             Validate.notBlank(className, "Invalid class name at position %d of method signature \"%s\"",
                     Integer.valueOf(type), internal);
             pos.setIndex(semi + 1);
-            return Class.forName(className);
+            return internal.substring(here, semi + 1);
         default:
             throw new IllegalArgumentException(String.format(
                     "Unexpected character at index %d of method signature \"%s\"",
@@ -182,12 +173,30 @@ public class MethodSignature implements Serializable
         }
     }
 
+    /**
+     * Resolve a type descriptor from the perspective of <code>classLoader</code>.
+     */
+    private static Class<?> resolve(String descriptor, ClassLoader classLoader) throws ClassNotFoundException
+    {
+        final char c = descriptor.charAt(0);
+        if (c == 'L')
+        {
+            return Class.forName(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'), false,
+                    classLoader);
+        }
+        if (c == '[')
+        {
+            return Class.forName(descriptor.replace('/', '.'), false, classLoader);
+        }
+        return REVERSE_ABBREVIATIONS.get(Character.valueOf(c));
+    }
+
     //******************************************************************************************************************
     // Fields
     //******************************************************************************************************************
 
     /**
-     * Stored as a Java method descriptor minus return type.
+     * Stored as a Java method descriptor minus return type; interned.
      */
     private final String internal;
 
@@ -208,7 +217,12 @@ public class MethodSignature implements Serializable
             appendTo(buf, p);
         }
         buf.append(')');
-        this.internal = buf.toString();
+        this.internal = buf.toString().intern();
+    }
+
+    private MethodSignature(String internal)
+    {
+        this.internal = internal.intern();
     }
 
     //******************************************************************************************************************
@@ -223,8 +237,27 @@ public class MethodSignature implements Serializable
      */
     public Method toMethod(Class<?> type)
     {
-        final Pair<String, Class<?>[]> info = parse(internal);
-        return MethodUtils.getAccessibleMethod(type, info.getLeft(), info.getRight());
+        final Pair<String, String[]> info = parse(internal);
+        final String[] descriptors = info.getRight();
+        final Class<?>[] parameterTypes = new Class[descriptors.length];
+        try
+        {
+            for (int i = 0; i < descriptors.length; i++)
+            {
+                parameterTypes[i] = resolve(descriptors[i], type.getClassLoader());
+            }
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new IllegalArgumentException(String.format("Method signature \"%s\" references unknown type",
+                    internal), e);
+        }
+        return MethodUtils.getAccessibleMethod(type, info.getLeft(), parameterTypes);
+    }
+
+    private Object readResolve()
+    {
+        return new MethodSignature(internal);
     }
 
     //******************************************************************************************************************
@@ -250,7 +283,7 @@ public class MethodSignature implements Serializable
             return false;
         }
         MethodSignature other = (MethodSignature) o;
-        return other.internal.equals(internal);
+        return other.internal == internal || other.internal.equals(internal);
     }
 
     /**
@@ -259,7 +292,8 @@ public class MethodSignature implements Serializable
     @Override
     public int hashCode()
     {
-        return new HashCodeBuilder().append(internal).build().intValue();
+        // String caches its own hash code:
+        return internal.hashCode();
     }
 
     /**
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The immutable, indexed table of methods a proxy class must implement for a set of proxy classes, as described by
+ * {@link AbstractProxyClassGenerator#getImplementationMethods(Class[])}. Methods are numbered from <code>0</code> in the
+ * order they are encountered, so code generators and dispatch tables can share the indexes.
+ * <p>
+ * Tables are cached per set of proxy classes, or per ordered array of proxy classes if methods of different proxy
+ * classes share a signature, so that the order decides which method is encountered first. The cache holds them softly,
+ * because they reference the proxy classes.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class MethodTable
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final ClassSetMap<Entry> CACHE = new ClassSetMap<Entry>();
+    private static final ClassSetMap<Entry> ORDERED_CACHE = new ClassSetMap<Entry>(true);
+
+    private final Method[] methods;
+    private final Map<Method, Integer> indexes;
+    private final boolean signaturesClash;
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the {@link MethodTable} for <code>proxyClasses</code>.
+     *
+     * @param proxyClasses
+     * @return MethodTable
+     */
+    public static MethodTable of(Class<?>... proxyClasses)
+    {
+        final Entry entry = getEntry(CACHE, proxyClasses);
+        if (entry.isOrderSensitive())
+        {
+            return getOrderedTable(proxyClasses);
+        }
+        MethodTable result = entry.get();
+        if (result == null)
+        {
+            result = new MethodTable(proxyClasses);
+            if (result.signaturesClash)
+            {
+                entry.setOrderSensitive();
+                getEntry(ORDERED_CACHE, proxyClasses).set(result);
+            }
+            else
+            {
+                entry.set(result);
+            }
+        }
+        return result;
+    }
+
+    private static MethodTable getOrderedTable(Class<?>[] proxyClasses)
+    {
+        final Entry entry = getEntry(ORDERED_CACHE, proxyClasses);
+        MethodTable result = entry.get();
+        if (result == null)
+        {
+            result = new MethodTable(proxyClasses);
+            entry.set(result);
+        }
+        return result;
+    }
+
+    private static Entry getEntry(ClassSetMap<Entry> cache, Class<?>[] proxyClasses)
+    {
+        Entry entry = cache.get(proxyClasses);
+        if (entry == null)
+        {
+            final Entry newEntry = new Entry();
+            entry = cache.putIfAbsent(proxyClasses, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
+        }
+        return entry;
+    }
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    private MethodTable(Class<?>[] proxyClasses)
+    {
+        final Map<MethodSignature, Method> signatureMethodMap = new LinkedHashMap<MethodSignature, Method>();
+        final Map<Method, MethodSignature> methodSignatureMap = new HashMap<Method, MethodSignature>();
+        final Set<MethodSignature> finalizedSignatures = new HashSet<MethodSignature>();
+        boolean clash = false;
+        for (Class<?> proxyClass : proxyClasses)
+        {
+            for (Method method : proxyClass.getMethods())
+            {
+                final MethodSignature signature = new MethodSignature(method);
+                if (Modifier.isFinal(method.getModifiers()))
+                {
+                    finalizedSignatures.add(signature);
+                    continue;
+                }
+                final Method existing = signatureMethodMap.get(signature);
+                if (existing == null)
+                {
+                    signatureMethodMap.put(signature, method);
+                }
+                else if (!existing.equals(method))
+                {
+                    clash = true;
+                }
+                methodSignatureMap.put(method, signature);
+            }
+        }
+        signatureMethodMap.keySet().removeAll(finalizedSignatures);
+
+        final List<Method> methodList = new ArrayList<Method>(signatureMethodMap.values());
+        this.methods = methodList.toArray(new Method[methodList.size()]);
+        final Map<MethodSignature, Integer> signatureIndexes = new HashMap<MethodSignature, Integer>();
+        for (int i = 0; i < methods.length; i++)
+        {
+            signatureIndexes.put(methodSignatureMap.get(methods[i]), Integer.valueOf(i));
+        }
+        this.indexes = new HashMap<Method, Integer>();
+        for (Map.Entry<Method, MethodSignature> e : methodSignatureMap.entrySet())
+        {
+            final Integer index = signatureIndexes.get(e.getValue());
+            if (index != null)
+            {
+                indexes.put(e.getKey(), index);
+            }
+        }
+        this.signaturesClash = clash;
+    }
+
+    //******************************************************************************************************************
+    // Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the number of methods.
+     *
+     * @return int
+     */
+    public int size()
+    {
+        return methods.length;
+    }
+
+    /**
+     * Get the method at <code>index</code>.
+     *
+     * @param index
+     * @return Method
+     */
+    public Method get(int index)
+    {
+        return methods[index];
+    }
+
+    /**
+     * Get the index of the table method <code>method</code> is implemented by. Any non-final method of the proxy classes
+     * is found, including one whose signature clashes with a method encountered earlier.
+     *
+     * @param method
+     * @return int index, or <code>-1</code> if <code>method</code> is not implemented
+     */
+    public int indexOf(Method method)
+    {
+        final Integer index = indexes.get(method);
+        return index == null ? -1 : index.intValue();
+    }
+
+    /**
+     * Get the methods as a new array.
+     *
+     * @return Method[]
+     */
+    public Method[] toArray()
+    {
+        return methods.clone();
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Cache entry softly referencing a {@link MethodTable}. An unordered entry whose proxy classes turn out to have
+     * clashing signatures is marked order-sensitive instead, and its tables are kept in the ordered cache.
+     */
+    private static final class Entry
+    {
+        private volatile Reference<MethodTable> tableReference;
+        private volatile boolean orderSensitive;
+
+        MethodTable get()
+        {
+            final Reference<MethodTable> ref = tableReference;
+            return ref == null ? null : ref.get();
+        }
+
+        void set(MethodTable table)
+        {
+            tableReference = new SoftReference<MethodTable>(table);
+        }
+
+        boolean isOrderSensitive()
+        {
+            return orderSensitive;
+        }
+
+        void setOrderSensitive()
+        {
+            orderSensitive = true;
+        }
+    }
+}
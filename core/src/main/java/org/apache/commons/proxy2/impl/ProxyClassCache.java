@@ -19,17 +19,17 @@ package org.apache.commons.proxy2.impl;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
  * A cache for storing implementation classes for proxies based on a specific type of {@link ProxyClassGenerator}. A
  * proxy class cache ensures that there is only one class for every {@link ProxyClassGenerator}/{@link ClassLoader}
  * /proxy class array combination.
+ * <p>
+ * Lookups of already generated classes do not lock. A thread that has to generate a proxy class only blocks other
+ * threads asking for the same {@link ClassLoader}/proxy class combination. Proxy class arrays are matched as a
+ * {@link ClassSet} without being copied, in any order unless the cache is order-sensitive. {@link ClassLoader}s and
+ * generated classes are weakly referenced.
+ * </p>
  * 
  * @since 1.0
  */
@@ -40,9 +40,17 @@ public class ProxyClassCache
     // Fields
     //******************************************************************************************************************
 
-    private final Map<ClassLoader, Map<Set<Class<?>>, WeakReference<Class<?>>>> loaderToClassCache
-        = new WeakHashMap<ClassLoader, Map<Set<Class<?>>, WeakReference<Class<?>>>>();
+    private final ConcurrentWeakIdentityMap<ClassLoader, ClassSetMap<ProxyClassEntry>> loaderToClassCache
+        = new ConcurrentWeakIdentityMap<ClassLoader, ClassSetMap<ProxyClassEntry>>();
+    private final ClassSetMap<ProxyClassEntry> bootstrapClassCache;
     private final ProxyClassGenerator proxyClassGenerator;
+    private final boolean orderSensitive;
+
+    /**
+     * The class cache of the {@link ClassLoader} asked about last, sparing the loader lookup while one
+     * {@link ClassLoader} is in use.
+     */
+    private volatile LoaderClassCache lastClassCache;
 
     //******************************************************************************************************************
     // Constructors
@@ -54,30 +62,55 @@ public class ProxyClassCache
      * @param proxyClassGenerator
      */
     public ProxyClassCache(ProxyClassGenerator proxyClassGenerator)
+    {
+        this(proxyClassGenerator, false);
+    }
+
+    /**
+     * Create a new ProxyClassCache instance.
+     * 
+     * @param proxyClassGenerator
+     * @param orderSensitive
+     *            whether the generated classes depend on the order of the proxy classes, so that different orders or
+     *            repeated classes must not share a class
+     * @since 2.1
+     */
+    public ProxyClassCache(ProxyClassGenerator proxyClassGenerator, boolean orderSensitive)
     {
         this.proxyClassGenerator = proxyClassGenerator;
+        this.orderSensitive = orderSensitive;
+        this.bootstrapClassCache = new ClassSetMap<ProxyClassEntry>(orderSensitive);
     }
 
     //******************************************************************************************************************
     // Other Methods
     //******************************************************************************************************************
 
-    private Map<Set<Class<?>>, WeakReference<Class<?>>> getClassCache(ClassLoader classLoader)
+    private ClassSetMap<ProxyClassEntry> getClassCache(ClassLoader classLoader)
     {
-        Map<Set<Class<?>>, WeakReference<Class<?>>> cache = loaderToClassCache.get(classLoader);
+        if (classLoader == null)
+        {
+            return bootstrapClassCache;
+        }
+        final LoaderClassCache last = lastClassCache;
+        if (last != null && last.get() == classLoader)
+        {
+            return last.classCache;
+        }
+        ClassSetMap<ProxyClassEntry> cache = loaderToClassCache.get(classLoader);
         if (cache == null)
         {
-            cache = new HashMap<Set<Class<?>>, WeakReference<Class<?>>>();
-            loaderToClassCache.put(classLoader, cache);
+            final ClassSetMap<ProxyClassEntry> newCache = new ClassSetMap<ProxyClassEntry>(orderSensitive);
+            cache = loaderToClassCache.putIfAbsent(classLoader, newCache);
+            if (cache == null)
+            {
+                cache = newCache;
+            }
         }
+        lastClassCache = new LoaderClassCache(classLoader, cache);
         return cache;
     }
 
-    private Set<Class<?>> toClassCacheKey(Class<?>[] proxyClasses)
-    {
-        return new HashSet<Class<?>>(Arrays.asList(proxyClasses));
-    }
-
     /**
      * Returns the proxy class generated by the {@link ProxyClassGenerator} using the specified {@link ClassLoader} and
      * array of proxy classes.
@@ -89,29 +122,64 @@ public class ProxyClassCache
      * @return the proxy class generated by the {@link ProxyClassGenerator} using the specified {@link ClassLoader} and
      *         array of proxy classes
      */
-    public synchronized Class<?> getProxyClass(ClassLoader classLoader, Class<?>[] proxyClasses)
+    public Class<?> getProxyClass(ClassLoader classLoader, Class<?>[] proxyClasses)
+    {
+        final ClassSetMap<ProxyClassEntry> classCache = getClassCache(classLoader);
+        ProxyClassEntry entry = classCache.get(proxyClasses);
+        if (entry == null)
+        {
+            final ProxyClassEntry newEntry = new ProxyClassEntry();
+            entry = classCache.putIfAbsent(proxyClasses, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
+        }
+        final Class<?> proxyClass = entry.get();
+        return proxyClass == null ? entry.generate(classLoader, proxyClasses) : proxyClass;
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Pairs a weakly referenced {@link ClassLoader} with its class cache.
+     */
+    private static final class LoaderClassCache extends WeakReference<ClassLoader>
     {
-        final Map<Set<Class<?>>, WeakReference<Class<?>>> classCache = getClassCache(classLoader);
-        final Set<Class<?>> key = toClassCacheKey(proxyClasses);
-        Class<?> proxyClass;
-        Reference<Class<?>> proxyClassReference = classCache.get(key);
-        if (proxyClassReference == null)
+        final ClassSetMap<ProxyClassEntry> classCache;
+
+        LoaderClassCache(ClassLoader classLoader, ClassSetMap<ProxyClassEntry> classCache)
+        {
+            super(classLoader);
+            this.classCache = classCache;
+        }
+    }
+
+    /**
+     * Holds a weak reference to a generated proxy class. Generation is guarded by the entry's own monitor, so only
+     * threads waiting for the same proxy class are blocked.
+     */
+    private final class ProxyClassEntry
+    {
+        private volatile Reference<Class<?>> proxyClassReference;
+
+        Class<?> get()
         {
-            proxyClass = proxyClassGenerator.generateProxyClass(classLoader, proxyClasses);
-            classCache.put(key, new WeakReference<Class<?>>(proxyClass));
+            final Reference<Class<?>> ref = proxyClassReference;
+            return ref == null ? null : ref.get();
         }
-        else
+
+        synchronized Class<?> generate(ClassLoader classLoader, Class<?>[] proxyClasses)
         {
-            synchronized (proxyClassReference)
+            Class<?> proxyClass = get();
+            if (proxyClass == null)
             {
-                proxyClass = proxyClassReference.get();
-                if (proxyClass == null)
-                {
-                    proxyClass = proxyClassGenerator.generateProxyClass(classLoader, proxyClasses);
-                    classCache.put(key, new WeakReference<Class<?>>(proxyClass));
-                }
+                proxyClass = proxyClassGenerator.generateProxyClass(classLoader, proxyClasses);
+                proxyClassReference = new WeakReference<Class<?>>(proxyClass);
             }
+            return proxyClass;
         }
-        return proxyClass;
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Caches the constructor taking a fixed list of parameter types for each proxy class it is asked about, so that
+ * creating a proxy does not look the constructor up again. Constructors of non-public proxy classes are made
+ * accessible once, sparing the access check on every instantiation.
+ * <p>
+ * Constructors reference their classes, so the cache cannot hold them strongly. A generated proxy class can declare a
+ * static {@link Constructor} field named {@link #CONSTRUCTOR_FIELD_NAME}: the cache stores the constructor there, so
+ * that it stays reachable exactly as long as the class, and refers to it weakly itself. Constructors of other classes
+ * are held softly.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class ProxyConstructorCache
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    /**
+     * Name of the optional static field of type {@link Constructor} keeping the cached constructor of a proxy class
+     * reachable.
+     */
+    public static final String CONSTRUCTOR_FIELD_NAME = "__constructor";
+
+    private final Class<?>[] parameterTypes;
+    private final ConcurrentWeakIdentityMap<Class<?>, Entry> entries = new ConcurrentWeakIdentityMap<Class<?>, Entry>();
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    /**
+     * Create a new ProxyConstructorCache instance.
+     *
+     * @param parameterTypes of the constructors to cache
+     */
+    public ProxyConstructorCache(Class<?>... parameterTypes)
+    {
+        this.parameterTypes = parameterTypes.clone();
+    }
+
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    /**
+     * Get the constructor of <code>proxyClass</code> taking this cache's parameter types.
+     *
+     * @param proxyClass
+     * @return Constructor
+     * @throws NoSuchMethodException if <code>proxyClass</code> declares no such public constructor
+     */
+    public Constructor<?> getConstructor(Class<?> proxyClass) throws NoSuchMethodException
+    {
+        Entry entry = entries.get(proxyClass);
+        if (entry == null)
+        {
+            final Entry newEntry = new Entry();
+            entry = entries.putIfAbsent(proxyClass, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
+        }
+        final Constructor<?> constructor = entry.get();
+        return constructor == null ? entry.lookup(proxyClass, parameterTypes) : constructor;
+    }
+
+    /**
+     * Store <code>constructor</code> in the {@link #CONSTRUCTOR_FIELD_NAME} field of <code>proxyClass</code>, if any.
+     *
+     * @return whether <code>proxyClass</code> now keeps <code>constructor</code> reachable
+     */
+    private static boolean anchor(Class<?> proxyClass, Constructor<?> constructor)
+    {
+        final Field field;
+        try
+        {
+            field = proxyClass.getDeclaredField(CONSTRUCTOR_FIELD_NAME);
+        }
+        catch (NoSuchFieldException e)
+        {
+            return false;
+        }
+        final int modifiers = field.getModifiers();
+        if (!Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || !Constructor.class.equals(field.getType()))
+        {
+            return false;
+        }
+        field.setAccessible(true);
+        try
+        {
+            field.set(null, constructor);
+        }
+        catch (IllegalAccessException e)
+        {
+            return false;
+        }
+        return true;
+    }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Holds a reference to the constructor of a proxy class: a weak one if the class keeps the constructor reachable
+     * itself, a soft one otherwise.
+     */
+    private static final class Entry
+    {
+        private volatile Reference<Constructor<?>> constructorReference;
+
+        Constructor<?> get()
+        {
+            final Reference<Constructor<?>> ref = constructorReference;
+            return ref == null ? null : ref.get();
+        }
+
+        synchronized Constructor<?> lookup(Class<?> proxyClass, Class<?>[] parameterTypes)
+                throws NoSuchMethodException
+        {
+            Constructor<?> constructor = get();
+            if (constructor == null)
+            {
+                constructor = proxyClass.getConstructor(parameterTypes);
+                if (!Modifier.isPublic(proxyClass.getModifiers()))
+                {
+                    constructor.setAccessible(true);
+                }
+                constructorReference = anchor(proxyClass, constructor) ? new WeakReference<Constructor<?>>(
+                        constructor) : new SoftReference<Constructor<?>>(constructor);
+            }
+            return constructor;
+        }
+    }
+}
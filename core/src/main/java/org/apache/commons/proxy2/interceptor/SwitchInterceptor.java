@@ -18,14 +18,22 @@
 package org.apache.commons.proxy2.interceptor;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.proxy2.Interceptor;
 import org.apache.commons.proxy2.Invocation;
+import org.apache.commons.proxy2.ProxyUtils;
+import org.apache.commons.proxy2.interceptor.matcher.ExactInvocationMatcher;
 import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.MethodMatcher;
 
 /**
  * A {@link SwitchInterceptor} maintains a list of
@@ -33,6 +41,11 @@ import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
  * will be checked against the registered InvocationMatchers. If one matches the current invocation, then the
  * corresponding Interceptor will be called. If no InvocationMatchers match, the
  * {@link org.apache.commons.proxy2.Invocation#proceed()} method is called with no interception.
+ * <p>
+ * {@link MethodMatcher}s are only evaluated once per {@link Method}: the cases that can apply to a given method are
+ * remembered until another case is added. Cases with {@link ExactInvocationMatcher}s are looked up by the arguments of
+ * the invocation, however many there are.
+ * </p>
  */
 public class SwitchInterceptor implements Interceptor, Serializable
 {
@@ -45,6 +58,8 @@ public class SwitchInterceptor implements Interceptor, Serializable
     private final List<Pair<InvocationMatcher, Interceptor>> cases
         = new CopyOnWriteArrayList<Pair<InvocationMatcher, Interceptor>>();
 
+    private transient volatile DispatchTable dispatchTable;
+
     //******************************************************************************************************************
     // Constructors
     //******************************************************************************************************************
@@ -53,6 +68,18 @@ public class SwitchInterceptor implements Interceptor, Serializable
     {
     }
 
+    /**
+     * Create a new SwitchInterceptor instance with the cases of <code>original</code>. Cases added to either
+     * interceptor afterwards do not affect the other.
+     *
+     * @param original
+     * @since 2.1
+     */
+    public SwitchInterceptor(SwitchInterceptor original)
+    {
+        cases.addAll(original.cases);
+    }
+
     //******************************************************************************************************************
     // Interceptor Implementation
     //******************************************************************************************************************
@@ -60,14 +87,8 @@ public class SwitchInterceptor implements Interceptor, Serializable
     @Override
     public Object intercept(Invocation invocation) throws Throwable
     {
-        for (Pair<InvocationMatcher, Interceptor> currentCase : cases)
-        {
-            if (currentCase.getLeft().matches(invocation))
-            {
-                return currentCase.getRight().intercept(invocation);
-            }
-        }
-        return invocation.proceed();
+        final Interceptor interceptor = getDispatchTable().getCases(invocation.getMethod()).select(invocation);
+        return interceptor == null ? invocation.proceed() : interceptor.intercept(invocation);
     }
 
     //******************************************************************************************************************
@@ -79,6 +100,24 @@ public class SwitchInterceptor implements Interceptor, Serializable
         return new CaseBuilder(matcher);
     }
 
+    private DispatchTable getDispatchTable()
+    {
+        DispatchTable result = dispatchTable;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = dispatchTable;
+                if (result == null)
+                {
+                    result = new DispatchTable(cases);
+                    dispatchTable = result;
+                }
+            }
+        }
+        return result;
+    }
+
     //******************************************************************************************************************
     // Inner Classes
     //******************************************************************************************************************
@@ -94,8 +133,174 @@ public class SwitchInterceptor implements Interceptor, Serializable
 
         public SwitchInterceptor then(Interceptor interceptor)
         {
-            cases.add(new ImmutablePair<InvocationMatcher, Interceptor>(matcher, interceptor));
+            synchronized (SwitchInterceptor.this)
+            {
+                cases.add(new ImmutablePair<InvocationMatcher, Interceptor>(matcher, interceptor));
+                dispatchTable = null;
+            }
             return SwitchInterceptor.this;
         }
     }
+
+    /**
+     * Snapshot of the cases, with the cases that can apply to each {@link Method} computed on demand. Of a case whose
+     * {@link MethodMatcher} matches, only the {@link Interceptor} is kept (with a <code>null</code> matcher), and no
+     * later case is considered.
+     */
+    private static final class DispatchTable
+    {
+        private final List<Pair<InvocationMatcher, Interceptor>> cases;
+        private final ConcurrentMap<Method, MethodCases> casesByMethod = new ConcurrentHashMap<Method, MethodCases>();
+
+        DispatchTable(List<Pair<InvocationMatcher, Interceptor>> cases)
+        {
+            this.cases = new ArrayList<Pair<InvocationMatcher, Interceptor>>(cases);
+        }
+
+        MethodCases getCases(Method method)
+        {
+            MethodCases result = casesByMethod.get(method);
+            if (result == null)
+            {
+                result = new MethodCases(method, cases);
+                casesByMethod.putIfAbsent(method, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The cases that can apply to one {@link Method}. {@link ExactInvocationMatcher}s are not tried one by one, but
+     * indexed by the deep hash code of their arguments; the other cases are kept in order, along with their positions
+     * among all cases, so that the first matching case still wins.
+     */
+    private static final class MethodCases
+    {
+        private final List<Pair<InvocationMatcher, Interceptor>> cases
+            = new ArrayList<Pair<InvocationMatcher, Interceptor>>();
+        private final int[] positions;
+        private final ExactCase[] exactCases;
+
+        MethodCases(Method method, List<Pair<InvocationMatcher, Interceptor>> allCases)
+        {
+            final List<Integer> positionList = new ArrayList<Integer>();
+            final List<ExactCase> exactCaseList = new ArrayList<ExactCase>();
+            int position = 0;
+            for (Pair<InvocationMatcher, Interceptor> currentCase : allCases)
+            {
+                final InvocationMatcher matcher = currentCase.getLeft();
+                if (matcher instanceof ExactInvocationMatcher)
+                {
+                    final ExactInvocationMatcher exactMatcher = (ExactInvocationMatcher) matcher;
+                    if (method.equals(exactMatcher.getMethod()))
+                    {
+                        exactCaseList.add(new ExactCase(exactMatcher.getArguments(), position,
+                                currentCase.getRight()));
+                    }
+                }
+                else if (!(matcher instanceof MethodMatcher))
+                {
+                    cases.add(currentCase);
+                    positionList.add(Integer.valueOf(position));
+                }
+                else if (((MethodMatcher) matcher).matches(method))
+                {
+                    cases.add(ImmutablePair.of((InvocationMatcher) null, currentCase.getRight()));
+                    positionList.add(Integer.valueOf(position));
+                    break;
+                }
+                position++;
+            }
+            this.positions = new int[positionList.size()];
+            for (int i = 0; i < positions.length; i++)
+            {
+                positions[i] = positionList.get(i).intValue();
+            }
+            this.exactCases = exactCaseList.isEmpty() ? null : index(exactCaseList);
+        }
+
+        /**
+         * Build an open hash table of <code>exactCaseList</code>, chaining colliding cases in order of position.
+         */
+        private static ExactCase[] index(List<ExactCase> exactCaseList)
+        {
+            int capacity = 1;
+            while (capacity < exactCaseList.size() * 2)
+            {
+                capacity <<= 1;
+            }
+            final ExactCase[] table = new ExactCase[capacity];
+            for (int i = exactCaseList.size() - 1; i >= 0; i--)
+            {
+                final ExactCase exactCase = exactCaseList.get(i);
+                final int bucket = exactCase.hash & (capacity - 1);
+                exactCase.next = table[bucket];
+                table[bucket] = exactCase;
+            }
+            return table;
+        }
+
+        /**
+         * Select the {@link Interceptor} of the first case matching <code>invocation</code>.
+         *
+         * @param invocation
+         * @return Interceptor, or <code>null</code> if no case matches
+         */
+        Interceptor select(Invocation invocation)
+        {
+            final ExactCase exactCase = exactCases == null ? null : findExactCase(invocation.getArguments());
+            final int limit = exactCase == null ? Integer.MAX_VALUE : exactCase.position;
+            for (int i = 0; i < positions.length && positions[i] < limit; i++)
+            {
+                final Pair<InvocationMatcher, Interceptor> currentCase = cases.get(i);
+                final InvocationMatcher matcher = currentCase.getLeft();
+                if (matcher == null || matcher.matches(invocation))
+                {
+                    return currentCase.getRight();
+                }
+            }
+            return exactCase == null ? null : exactCase.interceptor;
+        }
+
+        private ExactCase findExactCase(Object[] arguments)
+        {
+            final Object[] args = arguments == null ? ProxyUtils.EMPTY_ARGUMENTS : arguments;
+            final int hash = ExactCase.hash(args);
+            for (ExactCase exactCase = exactCases[hash & (exactCases.length - 1)]; exactCase != null;
+                    exactCase = exactCase.next)
+            {
+                if (exactCase.hash == hash && Arrays.deepEquals(exactCase.arguments, args))
+                {
+                    return exactCase;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Case of an {@link ExactInvocationMatcher}, chained to the next case in the same hash bucket.
+     */
+    private static final class ExactCase
+    {
+        private final Object[] arguments;
+        private final int hash;
+        private final int position;
+        private final Interceptor interceptor;
+        private ExactCase next;
+
+        ExactCase(Object[] arguments, int position, Interceptor interceptor)
+        {
+            this.arguments = arguments;
+            this.hash = hash(arguments);
+            this.position = position;
+            this.interceptor = interceptor;
+        }
+
+        static int hash(Object[] arguments)
+        {
+            final int h = Arrays.deepHashCode(arguments);
+            return h ^ (h >>> 16);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.interceptor.matcher;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.proxy2.Invocation;
+
+/**
+ * An {@link InvocationMatcher} matching invocations of a single {@link Method} with particular arguments, so that it can
+ * be looked up by the arguments of an invocation rather than evaluated against it. {@link #matches(Invocation)} must
+ * return <code>true</code> exactly when the invocation's method equals {@link #getMethod()} and its arguments are
+ * {@link java.util.Arrays#deepEquals(Object[], Object[]) deeply equal} to {@link #getArguments()}.
+ *
+ * @since 2.1
+ */
+public interface ExactInvocationMatcher extends InvocationMatcher
+{
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    Method getMethod();
+
+    /**
+     * Get the expected arguments. Callers must not modify the returned array.
+     *
+     * @return Object[], never <code>null</code>
+     */
+    Object[] getArguments();
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.interceptor.matcher;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.proxy2.Invocation;
+
+/**
+ * An {@link InvocationMatcher} whose result depends only on the invoked {@link Method}, so that it can be evaluated once
+ * per method rather than once per {@link Invocation}. {@link #matches(Invocation)} must return the same as
+ * {@link #matches(Method)} for the invocation's method.
+ *
+ * @since 2.1
+ */
+public interface MethodMatcher extends InvocationMatcher
+{
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    boolean matches(Method method);
+}
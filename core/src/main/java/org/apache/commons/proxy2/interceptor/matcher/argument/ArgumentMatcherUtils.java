@@ -17,7 +17,8 @@
 
 package org.apache.commons.proxy2.interceptor.matcher.argument;
 
-import org.apache.commons.lang3.ObjectUtils;
+import java.util.regex.Pattern;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.proxy2.interceptor.matcher.ArgumentMatcher;
@@ -28,6 +29,20 @@ public final class ArgumentMatcherUtils
     // Static Methods
     //******************************************************************************************************************
 
+    /**
+     * Get an {@link ArgumentMatcher} matching arguments matched by both <code>first</code> and <code>second</code>.
+     * <code>second</code> is not consulted if <code>first</code> does not match.
+     *
+     * @param first
+     * @param second
+     * @return ArgumentMatcher
+     * @since 2.1
+     */
+    public static <T> ArgumentMatcher<T> and(ArgumentMatcher<? super T> first, ArgumentMatcher<? super T> second)
+    {
+        return new AndMatcher<T>(Validate.notNull(first, "first"), Validate.notNull(second, "second"));
+    }
+
     public static <T> ArgumentMatcher<T> any()
     {
         return new AnyMatcher<T>();
@@ -78,11 +93,49 @@ public final class ArgumentMatcherUtils
         return new RegexMatcher(Validate.notNull(regex));
     }
 
+    /**
+     * Get an {@link ArgumentMatcher} matching strings entirely matched by <code>pattern</code>.
+     *
+     * @param pattern
+     * @return ArgumentMatcher
+     * @since 2.1
+     */
+    public static ArgumentMatcher<String> matches(Pattern pattern)
+    {
+        return new RegexMatcher(Validate.notNull(pattern));
+    }
+
+    /**
+     * Get an {@link ArgumentMatcher} matching arguments not matched by <code>matcher</code>.
+     *
+     * @param matcher
+     * @return ArgumentMatcher
+     * @since 2.1
+     */
+    public static <T> ArgumentMatcher<T> not(ArgumentMatcher<? super T> matcher)
+    {
+        return new NotMatcher<T>(Validate.notNull(matcher, "matcher"));
+    }
+
     public static <T> ArgumentMatcher<T> notNull()
     {
         return new NotNullMatcher<T>();
     }
 
+    /**
+     * Get an {@link ArgumentMatcher} matching arguments matched by <code>first</code> or <code>second</code>.
+     * <code>second</code> is not consulted if <code>first</code> matches.
+     *
+     * @param first
+     * @param second
+     * @return ArgumentMatcher
+     * @since 2.1
+     */
+    public static <T> ArgumentMatcher<T> or(ArgumentMatcher<? super T> first, ArgumentMatcher<? super T> second)
+    {
+        return new OrMatcher<T>(Validate.notNull(first, "first"), Validate.notNull(second, "second"));
+    }
+
     public static ArgumentMatcher<String> startsWith(String prefix)
     {
         return new StartsWithMatcher(Validate.notNull(prefix));
@@ -101,6 +154,24 @@ public final class ArgumentMatcherUtils
     // Inner Classes
     //******************************************************************************************************************
 
+    private static final class AndMatcher<T> implements ArgumentMatcher<T>
+    {
+        private final ArgumentMatcher<? super T> first;
+        private final ArgumentMatcher<? super T> second;
+
+        private AndMatcher(ArgumentMatcher<? super T> first, ArgumentMatcher<? super T> second)
+        {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean matches(T argument)
+        {
+            return first.matches(argument) && second.matches(argument);
+        }
+    }
+
     private static final class AnyMatcher<T> implements ArgumentMatcher<T>
     {
         @Override
@@ -110,13 +181,34 @@ public final class ArgumentMatcherUtils
         }
     }
 
+    /**
+     * Compares arguments against a {@link Comparable}. When both are {@link Integer}s, {@link Long}s or {@link Double}s,
+     * the primitive values are compared directly, with the same result {@link Comparable#compareTo(Object)} would give;
+     * any other argument goes through {@link Comparable#compareTo(Object)}.
+     */
     private abstract static class ComparableMatcher<C extends Comparable<C>> implements ArgumentMatcher<C>
     {
         private final C comparable;
+        private final Class<?> primitiveWrapperType;
+        private final long longValue;
+        private final double doubleValue;
 
         protected ComparableMatcher(C comparable)
         {
             this.comparable = Validate.notNull(comparable);
+            final Class<?> type = comparable.getClass();
+            if (type == Integer.class || type == Long.class || type == Double.class)
+            {
+                this.primitiveWrapperType = type;
+                this.longValue = ((Number) comparable).longValue();
+                this.doubleValue = ((Number) comparable).doubleValue();
+            }
+            else
+            {
+                this.primitiveWrapperType = null;
+                this.longValue = 0L;
+                this.doubleValue = 0.0;
+            }
         }
 
         protected abstract boolean evaluate(int comparison);
@@ -128,7 +220,20 @@ public final class ArgumentMatcherUtils
             {
                 return false;
             }
-            final int comparison = comparable.compareTo(argument);
+            final int comparison;
+            if (argument.getClass() != primitiveWrapperType)
+            {
+                comparison = comparable.compareTo(argument);
+            }
+            else if (primitiveWrapperType == Double.class)
+            {
+                comparison = Double.compare(doubleValue, ((Double) argument).doubleValue());
+            }
+            else
+            {
+                final long value = ((Number) argument).longValue();
+                comparison = longValue < value ? -1 : longValue == value ? 0 : 1;
+            }
             return evaluate(comparison);
         }
     }
@@ -149,6 +254,11 @@ public final class ArgumentMatcherUtils
         }
     }
 
+    /**
+     * Matches arguments equal to a value, as {@link org.apache.commons.lang3.ObjectUtils#equals(Object, Object)} would
+     * with the argument first: the argument's {@link Object#equals(Object)} decides. Arguments identical to the value
+     * match without calling it.
+     */
     private static final class EqualsMatcher<T> implements ArgumentMatcher<T>
     {
         private final T value;
@@ -158,11 +268,10 @@ public final class ArgumentMatcherUtils
             this.value = value;
         }
 
-        @SuppressWarnings("deprecation")
         @Override
         public boolean matches(T argument)
         {
-            return ObjectUtils.equals(argument, value);
+            return argument == value || argument != null && value != null && argument.equals(value);
         }
     }
 
@@ -247,6 +356,22 @@ public final class ArgumentMatcherUtils
         }
     }
 
+    private static final class NotMatcher<T> implements ArgumentMatcher<T>
+    {
+        private final ArgumentMatcher<? super T> matcher;
+
+        private NotMatcher(ArgumentMatcher<? super T> matcher)
+        {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matches(T argument)
+        {
+            return !matcher.matches(argument);
+        }
+    }
+
     private static final class NotNullMatcher<T> implements ArgumentMatcher<T>
     {
         @Override
@@ -256,19 +381,48 @@ public final class ArgumentMatcherUtils
         }
     }
 
+    private static final class OrMatcher<T> implements ArgumentMatcher<T>
+    {
+        private final ArgumentMatcher<? super T> first;
+        private final ArgumentMatcher<? super T> second;
+
+        private OrMatcher(ArgumentMatcher<? super T> first, ArgumentMatcher<? super T> second)
+        {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean matches(T argument)
+        {
+            return first.matches(argument) || second.matches(argument);
+        }
+    }
+
     public static class RegexMatcher implements ArgumentMatcher<String>
     {
-        private final String regex;
+        private final Pattern pattern;
 
         public RegexMatcher(String regex)
         {
-            this.regex = regex;
+            this(Pattern.compile(regex));
+        }
+
+        /**
+         * Create a new RegexMatcher instance.
+         *
+         * @param pattern
+         * @since 2.1
+         */
+        public RegexMatcher(Pattern pattern)
+        {
+            this.pattern = pattern;
         }
 
         @Override
         public boolean matches(String argument)
         {
-            return argument != null && argument.matches(regex);
+            return argument != null && pattern.matcher(argument).matches();
         }
     }
 
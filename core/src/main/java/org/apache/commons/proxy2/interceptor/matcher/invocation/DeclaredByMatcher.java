@@ -17,13 +17,15 @@
 
 package org.apache.commons.proxy2.interceptor.matcher.invocation;
 
+import java.lang.reflect.Method;
+
 import org.apache.commons.proxy2.Invocation;
-import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.MethodMatcher;
 
 /**
  * InvocationMatcher based on declaring class of the method invoked.
  */
-public class DeclaredByMatcher implements InvocationMatcher
+public class DeclaredByMatcher implements MethodMatcher
 {
     //******************************************************************************************************************
     // Fields
@@ -62,13 +64,19 @@ public class DeclaredByMatcher implements InvocationMatcher
     }
 
     //******************************************************************************************************************
-    // InvocationMatcher Implementation
+    // MethodMatcher Implementation
     //******************************************************************************************************************
 
     @Override
     public boolean matches(Invocation invocation)
     {
-        final Class<?> owner = invocation.getMethod().getDeclaringClass();
+        return matches(invocation.getMethod());
+    }
+
+    @Override
+    public boolean matches(Method method)
+    {
+        final Class<?> owner = method.getDeclaringClass();
         return exactMatch ? declaredByType.equals(owner) : owner.isAssignableFrom(declaredByType);
     }
 }
@@ -17,14 +17,16 @@
 
 package org.apache.commons.proxy2.interceptor.matcher.invocation;
 
+import java.lang.reflect.Method;
+
 import org.apache.commons.proxy2.Invocation;
-import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.MethodMatcher;
 
 /**
  * A {@link MethodNameMatcher} simply checks to see that the method name of the invocation matches the target method
  * name given in the constructor.
  */
-public class MethodNameMatcher implements InvocationMatcher
+public class MethodNameMatcher implements MethodMatcher
 {
     //******************************************************************************************************************
     // Fields
@@ -42,12 +44,18 @@ public class MethodNameMatcher implements InvocationMatcher
     }
 
     //******************************************************************************************************************
-    // InvocationMatcher Implementation
+    // MethodMatcher Implementation
     //******************************************************************************************************************
 
     @Override
     public boolean matches(Invocation invocation)
     {
-        return methodName.equals(invocation.getMethod().getName());
+        return matches(invocation.getMethod());
+    }
+
+    @Override
+    public boolean matches(Method method)
+    {
+        return methodName.equals(method.getName());
     }
 }
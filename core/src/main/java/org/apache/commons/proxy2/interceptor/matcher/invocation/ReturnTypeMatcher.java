@@ -17,10 +17,12 @@
 
 package org.apache.commons.proxy2.interceptor.matcher.invocation;
 
+import java.lang.reflect.Method;
+
 import org.apache.commons.proxy2.Invocation;
-import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.MethodMatcher;
 
-public class ReturnTypeMatcher implements InvocationMatcher
+public class ReturnTypeMatcher implements MethodMatcher
 {
     //******************************************************************************************************************
     // Fields
@@ -45,13 +47,19 @@ public class ReturnTypeMatcher implements InvocationMatcher
     }
 
     //******************************************************************************************************************
-    // InvocationMatcher Implementation
+    // MethodMatcher Implementation
     //******************************************************************************************************************
 
     @Override
     public boolean matches(Invocation invocation)
     {
-        return exactMatch ? returnType.equals(invocation.getMethod().getReturnType()) : returnType
-                .isAssignableFrom(invocation.getMethod().getReturnType());
+        return matches(invocation.getMethod());
+    }
+
+    @Override
+    public boolean matches(Method method)
+    {
+        return exactMatch ? returnType.equals(method.getReturnType()) : returnType.isAssignableFrom(method
+                .getReturnType());
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.invoker;
+
+/**
+ * A handle for invoking one proxied method on arbitrary targets without reflection, bound by the proxy class. Proxy
+ * factories able to do so pass one to {@link BoundMethodInvoker}s.
+ * 
+ * @since 2.1
+ */
+public interface BoundMethod
+{
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    /**
+     * Invokes the bound method on <code>target</code>. Exceptions thrown by the method are rethrown as they are, not
+     * wrapped in an {@link java.lang.reflect.InvocationTargetException}.
+     * 
+     * @param target
+     *            the object to invoke the method on, which must be an instance of the method's declaring class
+     * @param arguments
+     *            the arguments
+     * @return the return value, primitives being boxed
+     * @throws Throwable
+     *             thrown by the method
+     */
+    Object invoke(Object target, Object[] arguments) throws Throwable;
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.invoker;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.proxy2.Invoker;
+
+/**
+ * An {@link Invoker} which can make use of a {@link BoundMethod} for the invoked method. Proxy factories that can bind
+ * methods call {@link #invoke(Object, Method, BoundMethod, Object[])}; all others call
+ * {@link Invoker#invoke(Object, Method, Object[])}, which must therefore behave the same.
+ * 
+ * @since 2.1
+ */
+public interface BoundMethodInvoker extends Invoker
+{
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    /**
+     * "Invokes" the method.
+     * 
+     * @param proxy
+     *            the proxy2 object
+     * @param method
+     *            the method being invoked
+     * @param boundMethod
+     *            a handle invoking <code>method</code> on a target
+     * @param arguments
+     *            the arguments
+     * @return the return value
+     * @throws Throwable
+     *             thrown by the implementation
+     */
+    Object invoke(Object proxy, Method method, BoundMethod boundMethod, Object[] arguments) throws Throwable;
+}
@@ -21,15 +21,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
 
 /**
- * Delegates a method invocation to the object provided by an {@link ObjectProvider}.
+ * Delegates a method invocation to the object provided by an {@link ObjectProvider}. When the proxy supplies a
+ * {@link BoundMethod}, the delegate is called through it rather than by reflection.
  * 
  * @param <T>
  */
-public class DelegatingInvoker<T> implements Invoker
+public class DelegatingInvoker<T> implements BoundMethodInvoker
 {
     private static final long serialVersionUID = 1L;
 
@@ -54,4 +54,15 @@ public class DelegatingInvoker<T> implements Invoker
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * @since 2.1
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, BoundMethod boundMethod, Object[] arguments) throws Throwable
+    {
+        return boundMethod.invoke(delegateProvider.getObject(), arguments);
+    }
+
 }
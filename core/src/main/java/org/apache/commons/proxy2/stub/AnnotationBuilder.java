@@ -36,6 +36,7 @@ import org.apache.commons.proxy2.ObjectProvider;
 import org.apache.commons.proxy2.ProxyFactory;
 import org.apache.commons.proxy2.ProxyUtils;
 import org.apache.commons.proxy2.impl.AbstractProxyFactory;
+import org.apache.commons.proxy2.impl.MethodMetadata;
 import org.apache.commons.proxy2.provider.ObjectProviderUtils;
 
 public class AnnotationBuilder<A extends Annotation> extends StubBuilder<A>
@@ -63,16 +64,17 @@ public class AnnotationBuilder<A extends Annotation> extends StubBuilder<A>
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
         {
-            if (ProxyUtils.isHashCode(method))
+            final MethodMetadata metadata = MethodMetadata.of(method);
+            if (metadata.isHashCode())
             {
                 return Integer.valueOf(AnnotationUtils.hashCode((Annotation) proxy));
             }
-            if (ProxyUtils.isEqualsMethod(method))
+            if (metadata.isEquals())
             {
                 return Boolean.valueOf(args[0] instanceof Annotation
                         && AnnotationUtils.equals((Annotation) proxy, (Annotation) args[0]));
             }
-            if ("toString".equals(method.getName()) && method.getParameterTypes().length == 0)
+            if (metadata.isToString())
             {
                 return AnnotationUtils.toString((Annotation) proxy);
             }
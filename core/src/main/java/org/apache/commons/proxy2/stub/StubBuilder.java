@@ -83,6 +83,18 @@ public class StubBuilder<T> implements Builder<T>
                 proxyTypes.toArray(ArrayUtils.EMPTY_CLASS_ARRAY));
     }
 
+    /**
+     * Freeze the training so far into a {@link StubTemplate}.
+     *
+     * @return StubTemplate
+     * @since 2.1
+     */
+    public StubTemplate<T> toTemplate()
+    {
+        return new StubTemplate<T>(proxyFactory, target, new SwitchInterceptor(switchInterceptor),
+                proxyTypes.toArray(ArrayUtils.EMPTY_CLASS_ARRAY));
+    }
+
     public <O> StubBuilder<T> train(BaseTrainer<?, O> trainer)
     {
         final TrainingContext trainingContext = TrainingContext.join(proxyFactory);
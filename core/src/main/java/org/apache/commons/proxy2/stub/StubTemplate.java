@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.proxy2.stub;
+
+import org.apache.commons.lang3.builder.Builder;
+import org.apache.commons.proxy2.Interceptor;
+import org.apache.commons.proxy2.ProxyFactory;
+
+/**
+ * Immutable, thread-safe snapshot of a trained {@link StubBuilder}, obtained from {@link StubBuilder#toTemplate()}.
+ * Training the builder further does not affect the template. All stubs built by a template share its target and its
+ * interceptor, so building one costs a single proxy instantiation.
+ *
+ * @param <T> stub type
+ * @since 2.1
+ */
+public final class StubTemplate<T> implements Builder<T>
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private final ProxyFactory proxyFactory;
+    private final T target;
+    private final Interceptor interceptor;
+    private final Class<?>[] proxyTypes;
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    StubTemplate(ProxyFactory proxyFactory, T target, Interceptor interceptor, Class<?>[] proxyTypes)
+    {
+        this.proxyFactory = proxyFactory;
+        this.target = target;
+        this.interceptor = interceptor;
+        this.proxyTypes = proxyTypes;
+    }
+
+    //******************************************************************************************************************
+    // Other Methods
+    //******************************************************************************************************************
+
+    /**
+     * Build a new stub.
+     *
+     * @return T
+     */
+    @Override
+    public T build()
+    {
+        return proxyFactory.createInterceptorProxy(target, interceptor, proxyTypes);
+    }
+}
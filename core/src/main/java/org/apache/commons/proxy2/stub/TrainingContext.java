@@ -18,11 +18,11 @@ package org.apache.commons.proxy2.stub;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.UUID;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.proxy2.Interceptor;
@@ -32,6 +32,7 @@ import org.apache.commons.proxy2.ProxyFactory;
 import org.apache.commons.proxy2.ProxyUtils;
 import org.apache.commons.proxy2.interceptor.SwitchInterceptor;
 import org.apache.commons.proxy2.interceptor.matcher.ArgumentMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.ExactInvocationMatcher;
 import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
 import org.apache.commons.proxy2.invoker.NullInvoker;
 import org.apache.commons.proxy2.invoker.RecordedInvocation;
@@ -46,7 +47,7 @@ class TrainingContext
 
     private final ProxyFactory proxyFactory;
 
-    private final Deque<TrainingContextFrame<?>> frameDeque = new LinkedList<TrainingContextFrame<?>>();
+    private final Deque<TrainingContextFrame<?>> frameDeque = new ArrayDeque<TrainingContextFrame<?>>();
 
     private final TrainingContext resume;
 
@@ -59,7 +60,7 @@ class TrainingContext
         return TRAINING_CONTEXT.get();
     }
 
-    static synchronized TrainingContext join(ProxyFactory proxyFactory)
+    static TrainingContext join(ProxyFactory proxyFactory)
     {
         final TrainingContext context = new TrainingContext(proxyFactory);
         TRAINING_CONTEXT.set(context);
@@ -82,16 +83,13 @@ class TrainingContext
 
     void part()
     {
-        synchronized (TRAINING_CONTEXT)
+        if (resume == null)
         {
-            if (resume == null)
-            {
-                TRAINING_CONTEXT.remove();
-            }
-            else
-            {
-                TRAINING_CONTEXT.set(resume);
-            }
+            TRAINING_CONTEXT.remove();
+        }
+        else
+        {
+            TRAINING_CONTEXT.set(resume);
         }
     }
 
@@ -108,8 +106,7 @@ class TrainingContext
     <T> T pop(Invoker invoker)
     {
         final TrainingContextFrame<?> frame = frameDeque.pop();
-        return proxyFactory.createInterceptorProxy(proxyFactory.createInvokerProxy(invoker, frame.type),
-                frame.stubInterceptor, frame.type);
+        return proxyFactory.createInvokerProxy(new StubInvoker(frame.stubInterceptor, invoker), frame.type);
     }
 
     <T> T push(Class<T> type)
@@ -139,20 +136,33 @@ class TrainingContext
     // Inner Classes
     //******************************************************************************************************************
 
-    private static final class ExactArgumentsMatcher implements InvocationMatcher
+    private static final class ExactArgumentsMatcher implements ExactInvocationMatcher
     {
-        private final RecordedInvocation recordedInvocation;
+        private final Method method;
+        private final Object[] arguments;
 
         private ExactArgumentsMatcher(RecordedInvocation recordedInvocation)
         {
-            this.recordedInvocation = recordedInvocation;
+            this.method = recordedInvocation.getInvokedMethod();
+            this.arguments = recordedInvocation.getArguments();
         }
 
         @Override
         public boolean matches(Invocation invocation)
         {
-            return invocation.getMethod().equals(recordedInvocation.getInvokedMethod())
-                    && Arrays.deepEquals(invocation.getArguments(), recordedInvocation.getArguments());
+            return invocation.getMethod().equals(method) && Arrays.deepEquals(invocation.getArguments(), arguments);
+        }
+
+        @Override
+        public Method getMethod()
+        {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments()
+        {
+            return arguments;
         }
     }
 
@@ -190,13 +200,75 @@ class TrainingContext
         }
     }
 
-    private static final class TrainingContextFrame<T>
+    /**
+     * Lets the stub interceptor of a nested stub fall back to an {@link Invoker}, so that a single proxy suffices.
+     */
+    private static final class StubInvoker implements Invoker
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Interceptor stubInterceptor;
+        private final Invoker fallback;
+
+        private StubInvoker(Interceptor stubInterceptor, Invoker fallback)
+        {
+            this.stubInterceptor = stubInterceptor;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+        {
+            return stubInterceptor.intercept(new StubInvocation(proxy, method, arguments, fallback));
+        }
+    }
+
+    private static final class StubInvocation implements Invocation
     {
-        private final String id = UUID.randomUUID().toString();
+        private final Object proxy;
+        private final Method method;
+        private final Object[] arguments;
+        private final Invoker fallback;
+
+        private StubInvocation(Object proxy, Method method, Object[] arguments, Invoker fallback)
+        {
+            this.proxy = proxy;
+            this.method = method;
+            // proxies pass a new array for every call, so there is no need to copy it:
+            this.arguments = arguments == null ? ProxyUtils.EMPTY_ARGUMENTS : arguments;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object[] getArguments()
+        {
+            return arguments;
+        }
+
+        @Override
+        public Method getMethod()
+        {
+            return method;
+        }
 
+        @Override
+        public Object getProxy()
+        {
+            return proxy;
+        }
+
+        @Override
+        public Object proceed() throws Throwable
+        {
+            return fallback.invoke(proxy, method, arguments);
+        }
+    }
+
+    private static final class TrainingContextFrame<T>
+    {
         private final SwitchInterceptor stubInterceptor;
 
-        private final List<ArgumentMatcher<?>> argumentMatchers = new LinkedList<ArgumentMatcher<?>>();
+        private final List<ArgumentMatcher<?>> argumentMatchers = new ArrayList<ArgumentMatcher<?>>();
 
         private InvocationMatcher matcher = null;
 
@@ -208,11 +280,6 @@ class TrainingContext
             this.stubInterceptor = stubInterceptor;
         }
 
-        private String getId()
-        {
-            return id;
-        }
-
         void then(Interceptor thenInterceptor)
         {
             if (matcher == null)
@@ -248,18 +315,20 @@ class TrainingContext
     {
         private static final long serialVersionUID = 1L;
 
-        private final String id;
+        /**
+         * Training proxies are not meant to be serialized; frames are compared by identity.
+         */
+        private final transient TrainingContextFrame<?> frame;
 
         private TrainingInvoker(TrainingContextFrame<?> frame)
         {
-            this.id = frame.getId();
+            this.frame = frame;
         }
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
         {
-            final TrainingContextFrame<?> frame = current().peek();
-            if (!frame.getId().equals(id))
+            if (current().peek() != frame)
             {
                 throw new IllegalStateException("Wrong stub!");
             }
@@ -76,6 +76,11 @@ public abstract class AbstractProxyFactoryTestCase extends AbstractTestCase
 
     }
 
+    protected AbstractProxyFactoryTestCase(ProxyFactory factory)
+    {
+        this.factory = factory;
+    }
+
     //**********************************************************************************************************************
     // Other Methods
     //**********************************************************************************************************************
@@ -40,6 +40,19 @@ public abstract class AbstractSubclassingProxyFactoryTestCase extends AbstractPr
 
     private static final Class<?>[] DATE_ONLY = new Class[] { Date.class };
 
+    //----------------------------------------------------------------------------------------------------------------------
+    // Constructors
+    //----------------------------------------------------------------------------------------------------------------------
+
+    protected AbstractSubclassingProxyFactoryTestCase()
+    {
+    }
+
+    protected AbstractSubclassingProxyFactoryTestCase(ProxyFactory factory)
+    {
+        super(factory);
+    }
+
     //----------------------------------------------------------------------------------------------------------------------
     // Other Methods
     //----------------------------------------------------------------------------------------------------------------------
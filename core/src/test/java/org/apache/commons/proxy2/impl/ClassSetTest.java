@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.apache.commons.proxy2.util.DuplicateEcho;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
+
+public class ClassSetTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testEquals()
+    {
+        final ClassSet set = ClassSet.of(Echo.class, DuplicateEcho.class);
+        assertEquals(set, ClassSet.of(DuplicateEcho.class, Echo.class));
+        assertEquals(set, ClassSet.of(Echo.class, DuplicateEcho.class, Echo.class));
+        assertEquals(set.hashCode(), ClassSet.of(DuplicateEcho.class, Echo.class, Echo.class).hashCode());
+        assertFalse(set.equals(ClassSet.of(Echo.class)));
+        assertFalse(set.equals(ClassSet.of(Echo.class, DuplicateEcho.class, Serializable.class)));
+    }
+
+    @Test
+    public void testMatches()
+    {
+        final ClassSet set = ClassSet.of(Echo.class, DuplicateEcho.class);
+        assertTrue(set.matches(new Class[] { DuplicateEcho.class, Echo.class }));
+        assertEquals(set.hashCode(), ClassSet.hashCode(new Class[] { DuplicateEcho.class, Echo.class }));
+        assertFalse(set.matches(new Class[] { Echo.class }));
+        assertFalse(set.matches(new Class[] { Echo.class, Serializable.class }));
+    }
+
+    @Test
+    public void testOrdered()
+    {
+        final ClassSet set = ClassSet.ofOrdered(Echo.class, DuplicateEcho.class);
+        assertTrue(set.isOrdered());
+        assertTrue(set.matches(new Class[] { Echo.class, DuplicateEcho.class }));
+        assertEquals(set.hashCode(), ClassSet.orderedHashCode(new Class[] { Echo.class, DuplicateEcho.class }));
+        assertFalse(set.matches(new Class[] { DuplicateEcho.class, Echo.class }));
+        assertFalse(set.matches(new Class[] { Echo.class, DuplicateEcho.class, Echo.class }));
+        assertEquals(set, ClassSet.ofOrdered(Echo.class, DuplicateEcho.class));
+        assertFalse(set.equals(ClassSet.ofOrdered(DuplicateEcho.class, Echo.class)));
+        assertFalse(set.equals(ClassSet.of(Echo.class, DuplicateEcho.class)));
+    }
+
+    @Test
+    public void testOrderedClassSetMap()
+    {
+        final ClassSetMap<String> map = new ClassSetMap<String>(true);
+        assertNull(map.putIfAbsent(new Class[] { Echo.class, Serializable.class }, "echo"));
+        assertNull(map.putIfAbsent(new Class[] { Serializable.class, Echo.class }, "serializable"));
+        assertNull(map.putIfAbsent(new Class[] { Echo.class, Echo.class }, "duplicate"));
+        assertEquals("echo", map.get(new Class[] { Echo.class, Serializable.class }));
+        assertEquals("serializable", map.get(new Class[] { Serializable.class, Echo.class }));
+        assertEquals("duplicate", map.get(new Class[] { Echo.class, Echo.class }));
+        assertNull(map.get(new Class[] { Echo.class }));
+    }
+
+    @Test
+    public void testClassSetMap()
+    {
+        final ClassSetMap<String> map = new ClassSetMap<String>();
+        assertNull(map.get(new Class[] { Echo.class }));
+        assertNull(map.putIfAbsent(new Class[] { Echo.class, Serializable.class }, "echo"));
+        assertEquals("echo", map.putIfAbsent(new Class[] { Serializable.class, Echo.class }, "other"));
+
+        // force the table to grow:
+        for (int i = 0; i < 100; i++)
+        {
+            final Class<?> arrayType = Array.newInstance(Echo.class, new int[i + 1]).getClass();
+            assertNull(map.putIfAbsent(new Class[] { Echo.class, arrayType }, String.valueOf(i)));
+            assertEquals(String.valueOf(i), map.get(new Class[] { arrayType, Echo.class }));
+        }
+        assertEquals(101, map.size());
+        assertEquals("echo", map.get(new Class[] { Serializable.class, Echo.class }));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
+
+public class ConcurrentWeakIdentityMapTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testPutIfAbsent()
+    {
+        final ConcurrentWeakIdentityMap<Class<?>, String> map = new ConcurrentWeakIdentityMap<Class<?>, String>();
+        assertNull(map.get(Echo.class));
+        assertNull(map.putIfAbsent(Echo.class, "first"));
+        assertEquals("first", map.putIfAbsent(Echo.class, "second"));
+        assertEquals("first", map.get(Echo.class));
+        assertEquals(1, map.size());
+        assertEquals("first", map.put(Echo.class, "third"));
+        assertEquals("third", map.get(Echo.class));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testIdentity()
+    {
+        final ConcurrentWeakIdentityMap<String, String> map = new ConcurrentWeakIdentityMap<String, String>();
+        final String key = new String("key");
+        final String equalKey = new String("key");
+        map.putIfAbsent(key, "value");
+        assertSame("value", map.get(key));
+        assertNull(map.get(equalKey));
+        assertNull(map.putIfAbsent(equalKey, "other"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testGrowth()
+    {
+        final ConcurrentWeakIdentityMap<Object, Integer> map = new ConcurrentWeakIdentityMap<Object, Integer>();
+        final Object[] keys = new Object[1000];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = new Object();
+            assertNull(map.putIfAbsent(keys[i], Integer.valueOf(i)));
+        }
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++)
+        {
+            assertEquals(Integer.valueOf(i), map.get(keys[i]));
+            assertEquals(Integer.valueOf(i), map.put(keys[i], Integer.valueOf(-i)));
+        }
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++)
+        {
+            assertEquals(Integer.valueOf(-i), map.get(keys[i]));
+        }
+        assertNull(map.get(null));
+    }
+}
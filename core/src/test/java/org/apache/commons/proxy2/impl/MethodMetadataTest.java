@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
+
+public class MethodMetadataTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testObjectMethods() throws Exception
+    {
+        assertTrue(MethodMetadata.of(Object.class.getMethod("equals", Object.class)).isEquals());
+        assertTrue(MethodMetadata.of(Object.class.getMethod("hashCode")).isHashCode());
+        assertTrue(MethodMetadata.of(Object.class.getMethod("toString")).isToString());
+
+        final MethodMetadata overloadedEquals = MethodMetadata.of(Overloads.class.getMethod("equals", String.class));
+        assertFalse(overloadedEquals.isEquals());
+        assertFalse(MethodMetadata.of(Overloads.class.getMethod("hashCode", int.class)).isHashCode());
+        assertFalse(MethodMetadata.of(Overloads.class.getMethod("toString", int.class)).isToString());
+    }
+
+    @Test
+    public void testReturnTypesAndArguments() throws Exception
+    {
+        final MethodMetadata echo = MethodMetadata.of(Echo.class.getMethod("echo"));
+        assertTrue(echo.isVoid());
+        assertFalse(echo.isPrimitiveReturn());
+        assertEquals(0, echo.getArgumentCount());
+        assertFalse(echo.isDefault());
+
+        final MethodMetadata echoBackInt = MethodMetadata.of(Echo.class.getMethod("echoBack", int.class));
+        assertFalse(echoBackInt.isVoid());
+        assertTrue(echoBackInt.isPrimitiveReturn());
+        assertEquals(1, echoBackInt.getArgumentCount());
+
+        final MethodMetadata echoBackStrings =
+                MethodMetadata.of(Echo.class.getMethod("echoBack", String.class, String.class));
+        assertFalse(echoBackStrings.isVoid());
+        assertFalse(echoBackStrings.isPrimitiveReturn());
+        assertEquals(2, echoBackStrings.getArgumentCount());
+    }
+
+    @Test
+    public void testCaching() throws Exception
+    {
+        final Method method = Echo.class.getMethod("echo");
+        assertSame(MethodMetadata.of(method), MethodMetadata.of(method));
+    }
+
+    //**********************************************************************************************************************
+    // Inner Classes
+    //**********************************************************************************************************************
+
+    public static class Overloads
+    {
+        public boolean equals(String s)
+        {
+            return false;
+        }
+
+        public int hashCode(int seed)
+        {
+            return seed;
+        }
+
+        public String toString(int radix)
+        {
+            return null;
+        }
+    }
+}
@@ -88,6 +88,20 @@ public class MethodSignatureTest extends AbstractTestCase
         assertMethodIs(sig.toMethod(DuplicateEcho.class), DuplicateEcho.class, "echoBack", String.class);
     }
 
+    @Test
+    public void testToMethodAfterDeserialization() throws Exception
+    {
+        final MethodSignature sig = new MethodSignature(Echo.class.getMethod("echoBack", String.class));
+        assertEquals(sig.toMethod(EchoImpl.class), SerializationUtils.clone(sig).toMethod(EchoImpl.class));
+    }
+
+    @Test
+    public void testToMethodWithPrimitiveArray() throws Exception
+    {
+        final MethodSignature sig = new MethodSignature(String.class.getMethod("valueOf", char[].class));
+        assertMethodIs(sig.toMethod(String.class), String.class, "valueOf", char[].class);
+    }
+
     private void assertMethodIs(Method method, Class<?> declaredBy, String name, Class<?>... parameterTypes)
     {
         assertEquals(declaredBy, method.getDeclaringClass());
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.apache.commons.proxy2.util.DuplicateEcho;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
+
+public class MethodTableTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testIndexes() throws Exception
+    {
+        final MethodTable table = MethodTable.of(Echo.class);
+        assertEquals(Echo.class.getMethods().length, table.size());
+        for (int i = 0; i < table.size(); i++)
+        {
+            assertEquals(i, table.indexOf(table.get(i)));
+        }
+        assertEquals(-1, table.indexOf(Object.class.getMethod("toString")));
+    }
+
+    @Test
+    public void testCaching()
+    {
+        final MethodTable table = MethodTable.of(Echo.class);
+        assertSame(table, MethodTable.of(Echo.class));
+
+        final Method[] methods = table.toArray();
+        methods[0] = null;
+        assertSame(table.get(0), MethodTable.of(Echo.class).get(0));
+    }
+
+    @Test
+    public void testCachingSurvivesGarbageCollection()
+    {
+        // hold no strong reference to the table:
+        final int identity = System.identityHashCode(MethodTable.of(Echo.class));
+        System.gc();
+        assertEquals(identity, System.identityHashCode(MethodTable.of(Echo.class)));
+    }
+
+    @Test
+    public void testClashingSignatures() throws Exception
+    {
+        final Method echoBack = Echo.class.getMethod("echoBack", String.class);
+        final Method duplicateEchoBack = DuplicateEcho.class.getMethod("echoBack", String.class);
+
+        final MethodTable echoFirst = MethodTable.of(Echo.class, DuplicateEcho.class);
+        assertEquals(Echo.class.getMethods().length, echoFirst.size());
+        assertEquals(echoBack, echoFirst.get(echoFirst.indexOf(duplicateEchoBack)));
+
+        final MethodTable duplicateEchoFirst = MethodTable.of(DuplicateEcho.class, Echo.class);
+        assertNotSame(echoFirst, duplicateEchoFirst);
+        assertEquals(duplicateEchoBack, duplicateEchoFirst.get(duplicateEchoFirst.indexOf(echoBack)));
+
+        assertSame(echoFirst, MethodTable.of(Echo.class, DuplicateEcho.class));
+        assertSame(duplicateEchoFirst, MethodTable.of(DuplicateEcho.class, Echo.class));
+    }
+}
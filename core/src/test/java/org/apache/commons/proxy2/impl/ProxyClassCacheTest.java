@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.apache.commons.proxy2.util.DuplicateEcho;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
+
+public class ProxyClassCacheTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testCaching()
+    {
+        final CountingGenerator generator = new CountingGenerator();
+        final ProxyClassCache cache = new ProxyClassCache(generator);
+        final ClassLoader classLoader = getClass().getClassLoader();
+
+        final Class<?> proxyClass = cache.getProxyClass(classLoader, new Class[] { Echo.class, DuplicateEcho.class });
+        assertSame(proxyClass, cache.getProxyClass(classLoader, new Class[] { Echo.class, DuplicateEcho.class }));
+        assertSame(proxyClass, cache.getProxyClass(classLoader, new Class[] { DuplicateEcho.class, Echo.class }));
+        assertEquals(1, generator.count.get());
+
+        assertNotSame(proxyClass, cache.getProxyClass(classLoader, new Class[] { Echo.class }));
+        assertEquals(2, generator.count.get());
+    }
+
+    @Test
+    public void testOrderSensitiveCaching()
+    {
+        final CountingGenerator generator = new CountingGenerator();
+        final ProxyClassCache cache = new ProxyClassCache(generator, true);
+        final ClassLoader classLoader = getClass().getClassLoader();
+
+        final Class<?> proxyClass = cache.getProxyClass(classLoader, new Class[] { Echo.class, DuplicateEcho.class });
+        assertSame(proxyClass, cache.getProxyClass(classLoader, new Class[] { Echo.class, DuplicateEcho.class }));
+        assertNotSame(proxyClass, cache.getProxyClass(classLoader, new Class[] { DuplicateEcho.class, Echo.class }));
+        assertEquals(2, generator.count.get());
+    }
+
+    @Test
+    public void testNullClassLoader()
+    {
+        final CountingGenerator generator = new CountingGenerator();
+        final ProxyClassCache cache = new ProxyClassCache(generator);
+
+        final Class<?> proxyClass = cache.getProxyClass(null, new Class[] { Echo.class });
+        assertSame(proxyClass, cache.getProxyClass(null, new Class[] { Echo.class }));
+        assertEquals(1, generator.count.get());
+    }
+
+    @Test
+    public void testConcurrentGeneration() throws Exception
+    {
+        final CountingGenerator generator = new CountingGenerator();
+        final ProxyClassCache cache = new ProxyClassCache(generator);
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final List<Future<Class<?>>> results = new ArrayList<Future<Class<?>>>();
+            for (int i = 0; i < threads; i++)
+            {
+                results.add(executor.submit(new Callable<Class<?>>()
+                {
+                    @Override
+                    public Class<?> call() throws Exception
+                    {
+                        start.await();
+                        return cache.getProxyClass(classLoader, new Class[] { Echo.class });
+                    }
+                }));
+            }
+            start.countDown();
+            final Class<?> proxyClass = results.get(0).get();
+            for (Future<Class<?>> result : results)
+            {
+                assertSame(proxyClass, result.get());
+            }
+            assertEquals(1, generator.count.get());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    //**********************************************************************************************************************
+    // Inner Classes
+    //**********************************************************************************************************************
+
+    private static class CountingGenerator implements ProxyClassGenerator
+    {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Class<?> generateProxyClass(ClassLoader classLoader, Class<?>... proxyClasses)
+        {
+            // hand out a distinct class per generation:
+            return count.incrementAndGet() % 2 == 0 ? Runnable.class : Callable.class;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Constructor;
+
+import org.apache.commons.proxy2.util.AbstractTestCase;
+import org.junit.Test;
+
+public class ProxyConstructorCacheTest extends AbstractTestCase
+{
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testCaching() throws Exception
+    {
+        final ProxyConstructorCache cache = new ProxyConstructorCache(String.class);
+        final Constructor<?> constructor = cache.getConstructor(StringBuilder.class);
+        assertSame(constructor, cache.getConstructor(StringBuilder.class));
+        assertEquals("hello", constructor.newInstance("hello").toString());
+    }
+
+    @Test
+    public void testConstructorField() throws Exception
+    {
+        final ProxyConstructorCache cache = new ProxyConstructorCache(String.class);
+        final Constructor<?> constructor = cache.getConstructor(Anchoring.class);
+        assertSame(constructor, Anchoring.__constructor);
+        System.gc();
+        assertSame(constructor, cache.getConstructor(Anchoring.class));
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void testMissingConstructor() throws Exception
+    {
+        new ProxyConstructorCache(Runnable.class).getConstructor(StringBuilder.class);
+    }
+
+    //**********************************************************************************************************************
+    // Inner Classes
+    //**********************************************************************************************************************
+
+    public static class Anchoring
+    {
+        private static Constructor<?> __constructor;
+
+        public Anchoring(String value)
+        {
+        }
+    }
+}
@@ -21,8 +21,12 @@ import static org.apache.commons.proxy2.interceptor.InterceptorUtils.constant;
 import static org.junit.Assert.assertEquals;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.proxy2.Invocation;
+import org.apache.commons.proxy2.interceptor.matcher.ExactInvocationMatcher;
+import org.apache.commons.proxy2.interceptor.matcher.InvocationMatcher;
 import org.apache.commons.proxy2.interceptor.matcher.invocation.MethodNameMatcher;
 import org.apache.commons.proxy2.util.AbstractTestCase;
 import org.apache.commons.proxy2.util.Echo;
@@ -46,6 +50,76 @@ public class SwitchInterceptorTest extends AbstractTestCase
         assertEquals("baz", interceptor.intercept(invocation));
     }
 
+    @Test
+    public void testWithAdviceAddedAfterInvocation() throws Throwable
+    {
+        SwitchInterceptor interceptor = new SwitchInterceptor().when(new MethodNameMatcher("echo")).then(
+                constant("bar"));
+        Method method = Echo.class.getMethod("echoBack", String.class);
+        assertEquals("foo", interceptor.intercept(new MockInvocation(method, "foo", "foo")));
+        interceptor.when(new MethodNameMatcher("echoBack")).then(constant("baz"));
+        assertEquals("baz", interceptor.intercept(new MockInvocation(method, "foo", "foo")));
+    }
+
+    @Test
+    public void testWithArgumentDependentAdvice() throws Throwable
+    {
+        SwitchInterceptor interceptor = new SwitchInterceptor().when(new InvocationMatcher()
+        {
+            @Override
+            public boolean matches(Invocation invocation)
+            {
+                return "foo".equals(invocation.getArguments()[0]);
+            }
+        }).then(constant("bar")).when(new MethodNameMatcher("echoBack")).then(constant("baz"));
+        Method method = Echo.class.getMethod("echoBack", String.class);
+        assertEquals("bar", interceptor.intercept(new MockInvocation(method, "foo", "foo")));
+        assertEquals("baz", interceptor.intercept(new MockInvocation(method, "foo", "other")));
+    }
+
+    @Test
+    public void testMethodMatcherEvaluatedOncePerMethod() throws Throwable
+    {
+        final AtomicInteger count = new AtomicInteger();
+        SwitchInterceptor interceptor = new SwitchInterceptor().when(new MethodNameMatcher("echoBack")
+        {
+            @Override
+            public boolean matches(Method method)
+            {
+                count.incrementAndGet();
+                return super.matches(method);
+            }
+        }).then(constant("bar"));
+        Method method = Echo.class.getMethod("echoBack", String.class);
+        assertEquals("bar", interceptor.intercept(new MockInvocation(method, "foo", "foo")));
+        assertEquals("bar", interceptor.intercept(new MockInvocation(method, "foo", "foo")));
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testWithExactInvocationMatchers() throws Throwable
+    {
+        Method method = Echo.class.getMethod("echoBack", String.class);
+        SwitchInterceptor interceptor = new SwitchInterceptor();
+        for (int i = 0; i < 100; i++)
+        {
+            interceptor.when(new ExactMatcher(method, "foo" + i)).then(constant("bar" + i));
+        }
+        interceptor.when(new InvocationMatcher()
+        {
+            @Override
+            public boolean matches(Invocation invocation)
+            {
+                return ((String) invocation.getArguments()[0]).startsWith("foo");
+            }
+        }).then(constant("baz")).when(new ExactMatcher(method, "foo100")).then(constant("bar100"));
+        interceptor.when(new ExactMatcher(method, "foo0")).then(constant("qux"));
+        assertEquals("bar0", interceptor.intercept(new MockInvocation(method, "foo", "foo0")));
+        assertEquals("bar99", interceptor.intercept(new MockInvocation(method, "foo", "foo99")));
+        assertEquals("baz", interceptor.intercept(new MockInvocation(method, "foo", "foo100")));
+        assertEquals("other", interceptor.intercept(new MockInvocation(method, "other", "other")));
+    }
+
     @Test
     public void testWithNoAdvice() throws Throwable
     {
@@ -74,4 +148,38 @@ public class SwitchInterceptorTest extends AbstractTestCase
         Invocation invocation = new MockInvocation(method, "foo", "foo");
         assertEquals("bar", interceptor.intercept(invocation));
     }
+
+    //----------------------------------------------------------------------------------------------------------------------
+    // Inner Classes
+    //----------------------------------------------------------------------------------------------------------------------
+
+    private static class ExactMatcher implements ExactInvocationMatcher
+    {
+        private final Method method;
+        private final Object[] arguments;
+
+        public ExactMatcher(Method method, Object... arguments)
+        {
+            this.method = method;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public boolean matches(Invocation invocation)
+        {
+            return invocation.getMethod().equals(method) && Arrays.deepEquals(invocation.getArguments(), arguments);
+        }
+
+        @Override
+        public Method getMethod()
+        {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments()
+        {
+            return arguments;
+        }
+    }
 }
@@ -20,12 +20,24 @@ package org.apache.commons.proxy2.interceptor.matcher.argument;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.regex.Pattern;
+
 import org.apache.commons.proxy2.interceptor.matcher.ArgumentMatcher;
 import org.junit.Test;
 
 @SuppressWarnings("boxing") // test code
 public class ArgumentMatcherUtilsTest
 {
+    @Test
+    public void testAnd() throws Exception
+    {
+        ArgumentMatcher<String> matcher = ArgumentMatcherUtils.and(ArgumentMatcherUtils.<String> notNull(),
+                ArgumentMatcherUtils.startsWith("abc"));
+        assertTrue(matcher.matches("abcd"));
+        assertFalse(matcher.matches("bcd"));
+        assertFalse(matcher.matches(null));
+    }
+
     @Test
     public void testAny() throws Exception
     {
@@ -43,6 +55,36 @@ public class ArgumentMatcherUtilsTest
         assertFalse(matcher.matches(null));
     }
 
+    @Test
+    public void testEqEnum() throws Exception
+    {
+        ArgumentMatcher<Thread.State> matcher = ArgumentMatcherUtils.eq(Thread.State.NEW);
+        assertTrue(matcher.matches(Thread.State.NEW));
+        assertFalse(matcher.matches(Thread.State.RUNNABLE));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testEqUsesArgumentEquals() throws Exception
+    {
+        ArgumentMatcher<Object> matcher = ArgumentMatcherUtils.<Object> eq("Hello");
+        assertTrue(matcher.matches(new Object()
+        {
+            @Override
+            public boolean equals(Object o)
+            {
+                return "Hello".equals(o);
+            }
+
+            @Override
+            public int hashCode()
+            {
+                return "Hello".hashCode();
+            }
+        }));
+        assertFalse(matcher.matches(new Object()));
+    }
+
     @Test
     public void testGt() throws Exception
     {
@@ -53,6 +95,52 @@ public class ArgumentMatcherUtilsTest
         assertFalse(matcher.matches(null));
     }
 
+    @Test
+    public void testGtComparable() throws Exception
+    {
+        ArgumentMatcher<String> matcher = ArgumentMatcherUtils.gt("b");
+        assertTrue(matcher.matches("c"));
+        assertFalse(matcher.matches("b"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testGtPrimitiveWrappers() throws Exception
+    {
+        ArgumentMatcher<Character> charMatcher = ArgumentMatcherUtils.gt('b');
+        assertTrue(charMatcher.matches('c'));
+        assertFalse(charMatcher.matches('b'));
+
+        ArgumentMatcher<Short> shortMatcher = ArgumentMatcherUtils.gt((short) 5);
+        assertTrue(shortMatcher.matches((short) 6));
+        assertFalse(shortMatcher.matches((short) 5));
+
+        ArgumentMatcher<Float> floatMatcher = ArgumentMatcherUtils.lt(1.5f);
+        assertTrue(floatMatcher.matches(1.25f));
+        assertFalse(floatMatcher.matches(1.5f));
+
+        ArgumentMatcher<Long> longMatcher = ArgumentMatcherUtils.gt(5L);
+        assertTrue(longMatcher.matches(6L));
+        assertFalse(longMatcher.matches(5L));
+        assertFalse(ArgumentMatcherUtils.gt(Long.MAX_VALUE).matches(Long.MAX_VALUE));
+
+        ArgumentMatcher<Double> doubleMatcher = ArgumentMatcherUtils.gt(5.0);
+        assertTrue(doubleMatcher.matches(5.5));
+        assertFalse(doubleMatcher.matches(5.0));
+        assertTrue(ArgumentMatcherUtils.lte(0.5).matches(0.5));
+        // Double.compareTo() orders NaN above all other values:
+        assertTrue(doubleMatcher.matches(Double.NaN));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testGtMixedIntAndDouble() throws Exception
+    {
+        // as with Integer.compareTo(), a double argument is not silently truncated
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        final ArgumentMatcher<Object> matcher = (ArgumentMatcher) ArgumentMatcherUtils.gt(5);
+        matcher.matches(5.5);
+    }
+
     @Test
     public void testGte() throws Exception
     {
@@ -111,6 +199,23 @@ public class ArgumentMatcherUtilsTest
         assertFalse(matcher.matches(null));
     }
 
+    @Test
+    public void testMatchesPattern() throws Exception
+    {
+        ArgumentMatcher<String> matcher = ArgumentMatcherUtils.matches(Pattern.compile("(abc)+"));
+        assertTrue(matcher.matches("abcabc"));
+        assertFalse(matcher.matches("abcab"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testNot() throws Exception
+    {
+        ArgumentMatcher<String> matcher = ArgumentMatcherUtils.not(ArgumentMatcherUtils.<String> isNull());
+        assertTrue(matcher.matches("Hello"));
+        assertFalse(matcher.matches(null));
+    }
+
     @Test
     public void testNotNull() throws Exception
     {
@@ -119,6 +224,17 @@ public class ArgumentMatcherUtilsTest
         assertFalse(matcher.matches(null));
     }
 
+    @Test
+    public void testOr() throws Exception
+    {
+        ArgumentMatcher<Integer> matcher = ArgumentMatcherUtils.or(ArgumentMatcherUtils.lt(0),
+                ArgumentMatcherUtils.gt(10));
+        assertTrue(matcher.matches(-1));
+        assertTrue(matcher.matches(11));
+        assertFalse(matcher.matches(5));
+        assertFalse(matcher.matches(null));
+    }
+
     @Test
     public void testStartsWith() throws Exception
     {
@@ -18,6 +18,7 @@
 package org.apache.commons.proxy2.invoker;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.provider.ObjectProviderUtils;
@@ -37,4 +38,23 @@ public class DelegatingInvokerTest
                 invoker.invoke(null, Echo.class.getDeclaredMethod("echoBack", String.class), new Object[] { "foo" }));
     }
 
+    @Test
+    public void testWithBoundMethod() throws Throwable
+    {
+        final EchoImpl target = new EchoImpl();
+        final DelegatingInvoker<Echo> invoker = new DelegatingInvoker<Echo>(ObjectProviderUtils.constant(target));
+        final BoundMethod boundMethod = new BoundMethod()
+        {
+            @Override
+            public Object invoke(Object object, Object[] arguments)
+            {
+                assertSame(target, object);
+                return "bound " + arguments[0];
+            }
+        };
+
+        assertEquals("bound foo", invoker.invoke(null, Echo.class.getDeclaredMethod("echoBack", String.class),
+                boundMethod, new Object[] { "foo" }));
+    }
+
 }
@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.javassist;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import javassist.CannotCompileException;
+import javassist.CtBehavior;
+import javassist.CtClass;
+import javassist.CtMethod;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+
+import org.apache.commons.proxy2.ProxyUtils;
+
+/**
+ * Utility methods for emitting bytecode with Javassist's {@link Bytecode} API, which, unlike
+ * {@link CtBehavior#setBody(String)}, does not run the Javassist compiler nor read the class files of the types
+ * involved. Types are described by their Java {@link Class}es. This class is not part of the public API!
+ *
+ * @since 2.1
+ */
+final class BytecodeUtils
+{
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    private static final String GET_CLASS_LOADER_DESCRIPTOR = methodDescriptorOf(ClassLoader.class);
+    private static final String FOR_NAME_DESCRIPTOR = methodDescriptorOf(Class.class, String.class, Boolean.TYPE,
+            ClassLoader.class);
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Adds a public method with the supplied code to a class.
+     *
+     * @param ctClass
+     *            the class receiving the new method
+     * @param name
+     *            the method name
+     * @param descriptor
+     *            the method descriptor
+     * @param code
+     *            the method code, created on the constant pool of <code>ctClass</code>
+     * @throws CannotCompileException
+     *             if the method cannot be added
+     */
+    public static void addMethod(CtClass ctClass, String name, String descriptor, Bytecode code)
+            throws CannotCompileException
+    {
+        final MethodInfo methodInfo = new MethodInfo(ctClass.getClassFile().getConstPool(), name, descriptor);
+        methodInfo.setAccessFlags(AccessFlag.PUBLIC);
+        methodInfo.setCodeAttribute(code.toCodeAttribute());
+        ctClass.addMethod(CtMethod.make(methodInfo, ctClass));
+    }
+
+    /**
+     * Sets the code of a constructor or class initializer.
+     *
+     * @param behavior
+     *            the {@link CtBehavior}
+     * @param code
+     *            the code, created on the constant pool of the declaring class of <code>behavior</code>
+     */
+    public static void setCode(CtBehavior behavior, Bytecode code)
+    {
+        behavior.getMethodInfo().setCodeAttribute(code.toCodeAttribute());
+    }
+
+    /**
+     * Creates an empty {@link Bytecode} for an instance method or constructor of <code>ctClass</code> taking
+     * <code>parameterTypes</code>, with room for <code>this</code> and the parameters in its local variables.
+     *
+     * @param ctClass
+     *            the declaring class
+     * @param parameterTypes
+     *            the parameter types
+     * @param extraLocals
+     *            the number of additional local variable slots used by the code
+     * @return Bytecode
+     */
+    public static Bytecode newBytecode(CtClass ctClass, Class<?>[] parameterTypes, int extraLocals)
+    {
+        return new Bytecode(ctClass.getClassFile().getConstPool(), 0, 1 + sizeOf(parameterTypes) + extraLocals);
+    }
+
+    /**
+     * Get the JVM descriptor of a type.
+     *
+     * @param type
+     *            the type
+     * @return String
+     */
+    public static String descriptorOf(Class<?> type)
+    {
+        if (type.isPrimitive())
+        {
+            return String.valueOf(primitiveDescriptorOf(type));
+        }
+        if (type.isArray())
+        {
+            return type.getName().replace('.', '/');
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
+    /**
+     * Get the JVM descriptor of a method.
+     *
+     * @param returnType
+     *            the return type
+     * @param parameterTypes
+     *            the parameter types
+     * @return String
+     */
+    public static String methodDescriptorOf(Class<?> returnType, Class<?>... parameterTypes)
+    {
+        final StringBuilder result = new StringBuilder("(");
+        for (Class<?> parameterType : parameterTypes)
+        {
+            result.append(descriptorOf(parameterType));
+        }
+        return result.append(')').append(descriptorOf(returnType)).toString();
+    }
+
+    /**
+     * Get the JVM descriptor of a method.
+     *
+     * @param method
+     *            the method
+     * @return String
+     */
+    public static String methodDescriptorOf(Method method)
+    {
+        return methodDescriptorOf(method.getReturnType(), method.getParameterTypes());
+    }
+
+    /**
+     * Get the number of local variable (or operand stack) slots taken by values of the supplied types.
+     *
+     * @param types
+     *            the types
+     * @return int
+     */
+    public static int sizeOf(Class<?>[] types)
+    {
+        int result = 0;
+        for (Class<?> type : types)
+        {
+            result += sizeOf(type);
+        }
+        return result;
+    }
+
+    /**
+     * Pushes the parameters of the method being generated onto the stack.
+     *
+     * @param code
+     *            the code
+     * @param parameterTypes
+     *            the parameter types
+     * @param firstSlot
+     *            the local variable slot of the first parameter
+     */
+    public static void addLoadParameters(Bytecode code, Class<?>[] parameterTypes, int firstSlot)
+    {
+        int slot = firstSlot;
+        for (Class<?> parameterType : parameterTypes)
+        {
+            addLoad(code, slot, parameterType);
+            slot += sizeOf(parameterType);
+        }
+    }
+
+    /**
+     * Pushes a new <code>Object[]</code> holding the (boxed) parameters of the method being generated onto the stack,
+     * as Javassist's <code>$args</code> would.
+     *
+     * @param code
+     *            the code
+     * @param parameterTypes
+     *            the parameter types
+     * @param firstSlot
+     *            the local variable slot of the first parameter
+     */
+    public static void addParameterArray(Bytecode code, Class<?>[] parameterTypes, int firstSlot)
+    {
+        code.addIconst(parameterTypes.length);
+        code.addAnewarray(Object.class.getName());
+        int slot = firstSlot;
+        for (int i = 0; i < parameterTypes.length; ++i)
+        {
+            code.addOpcode(Opcode.DUP);
+            code.addIconst(i);
+            addLoad(code, slot, parameterTypes[i]);
+            addBox(code, parameterTypes[i]);
+            code.addOpcode(Opcode.AASTORE);
+            slot += sizeOf(parameterTypes[i]);
+        }
+    }
+
+    /**
+     * Converts the value of type <code>type</code> on top of the stack to an {@link Object}, boxing primitives.
+     *
+     * @param code
+     *            the code
+     * @param type
+     *            the type
+     */
+    public static void addBox(Bytecode code, Class<?> type)
+    {
+        if (type.isPrimitive())
+        {
+            final Class<?> wrapperType = ProxyUtils.getWrapperClass(type);
+            code.addInvokestatic(wrapperType.getName(), "valueOf", methodDescriptorOf(wrapperType, type));
+        }
+    }
+
+    /**
+     * Converts the {@link Object} on top of the stack to type <code>type</code>, unboxing primitives, as a Javassist
+     * <code>($r)</code> or <code>($type)</code> cast would.
+     *
+     * @param code
+     *            the code
+     * @param type
+     *            the type
+     */
+    public static void addUnbox(Bytecode code, Class<?> type)
+    {
+        if (type.isPrimitive())
+        {
+            final Class<?> wrapperType = ProxyUtils.getWrapperClass(type);
+            code.addCheckcast(wrapperType.getName());
+            code.addInvokevirtual(wrapperType.getName(), type.getName() + "Value", methodDescriptorOf(type));
+        }
+        else if (!Object.class.equals(type))
+        {
+            code.addCheckcast(type.getName());
+        }
+    }
+
+    /**
+     * Returns the {@link Object} on top of the stack from a method returning <code>returnType</code>, discarding it if
+     * the method is <code>void</code>.
+     *
+     * @param code
+     *            the code
+     * @param returnType
+     *            the return type
+     */
+    public static void addUnboxAndReturn(Bytecode code, Class<?> returnType)
+    {
+        if (Void.TYPE.equals(returnType))
+        {
+            code.addOpcode(Opcode.POP);
+        }
+        else
+        {
+            addUnbox(code, returnType);
+        }
+        addReturn(code, returnType);
+    }
+
+    /**
+     * Returns the value of type <code>returnType</code> on top of the stack, if any.
+     *
+     * @param code
+     *            the code
+     * @param returnType
+     *            the return type
+     */
+    public static void addReturn(Bytecode code, Class<?> returnType)
+    {
+        if (Void.TYPE.equals(returnType))
+        {
+            code.addOpcode(Opcode.RETURN);
+        }
+        else if (!returnType.isPrimitive())
+        {
+            code.addOpcode(Opcode.ARETURN);
+        }
+        else if (Long.TYPE.equals(returnType))
+        {
+            code.addOpcode(Opcode.LRETURN);
+        }
+        else if (Float.TYPE.equals(returnType))
+        {
+            code.addOpcode(Opcode.FRETURN);
+        }
+        else if (Double.TYPE.equals(returnType))
+        {
+            code.addOpcode(Opcode.DRETURN);
+        }
+        else
+        {
+            code.addOpcode(Opcode.IRETURN);
+        }
+    }
+
+    /**
+     * Invokes <code>method</code> on the receiver and arguments on top of the stack.
+     *
+     * @param code
+     *            the code
+     * @param method
+     *            the method
+     */
+    public static void addInvoke(Bytecode code, Method method)
+    {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String descriptor = methodDescriptorOf(method);
+        if (declaringClass.isInterface())
+        {
+            code.addInvokeinterface(declaringClass.getName(), method.getName(), descriptor,
+                    1 + sizeOf(method.getParameterTypes()));
+        }
+        else
+        {
+            code.addInvokevirtual(declaringClass.getName(), method.getName(), descriptor);
+        }
+    }
+
+    /**
+     * Pushes the {@link Class} object for <code>type</code>, as the class literal <code>type.class</code> would. A
+     * non-public type cannot be referenced from the generated class directly, so it is looked up with
+     * {@link Class#forName(String, boolean, ClassLoader)} in the class loader of the generated class.
+     *
+     * @param code
+     *            the code
+     * @param type
+     *            the type
+     * @param generatedClassName
+     *            the name of the class the code belongs to
+     */
+    public static void addClassLiteral(Bytecode code, Class<?> type, String generatedClassName)
+    {
+        if (type.isPrimitive())
+        {
+            code.addGetstatic(ProxyUtils.getWrapperClass(type).getName(), "TYPE", descriptorOf(Class.class));
+        }
+        else if (isPublic(type))
+        {
+            code.addLdc(code.getConstPool().addClassInfo(type.getName()));
+        }
+        else
+        {
+            code.addLdc(type.getName());
+            code.addIconst(0);
+            code.addLdc(code.getConstPool().addClassInfo(generatedClassName));
+            code.addInvokevirtual(Class.class.getName(), "getClassLoader", GET_CLASS_LOADER_DESCRIPTOR);
+            code.addInvokestatic(Class.class.getName(), "forName", FOR_NAME_DESCRIPTOR);
+        }
+    }
+
+    private static boolean isPublic(Class<?> type)
+    {
+        Class<?> elementType = type;
+        while (elementType.isArray())
+        {
+            elementType = elementType.getComponentType();
+        }
+        return Modifier.isPublic(elementType.getModifiers());
+    }
+
+    /**
+     * Adds a <code>tableswitch</code> on the <code>int</code> on top of the stack for the keys <code>0</code> to
+     * <code>caseCount - 1</code>. The jump offsets are left blank; fill them in with
+     * {@link #setSwitchTarget(Bytecode, int, int, int)} once the targets are known.
+     *
+     * @param code
+     *            the code
+     * @param caseCount
+     *            the number of cases
+     * @return the position of the <code>tableswitch</code> instruction
+     */
+    public static int addTableSwitch(Bytecode code, int caseCount)
+    {
+        final int switchPc = code.currentPc();
+        code.addOpcode(Opcode.TABLESWITCH);
+        code.addGap(3 - switchPc % 4);
+        code.add32bit(0);
+        code.add32bit(0);
+        code.add32bit(caseCount - 1);
+        code.addGap(4 * caseCount);
+        return switchPc;
+    }
+
+    /**
+     * Sets a jump target of a <code>tableswitch</code> added by {@link #addTableSwitch(Bytecode, int)}.
+     *
+     * @param code
+     *            the code
+     * @param switchPc
+     *            the position of the <code>tableswitch</code> instruction
+     * @param key
+     *            the key, or <code>-1</code> for the default target
+     * @param targetPc
+     *            the position to jump to
+     */
+    public static void setSwitchTarget(Bytecode code, int switchPc, int key, int targetPc)
+    {
+        final int defaultPc = switchPc + 4 - switchPc % 4;
+        code.write32bit(key < 0 ? defaultPc : defaultPc + 12 + 4 * key, targetPc - switchPc);
+    }
+
+    private static void addLoad(Bytecode code, int slot, Class<?> type)
+    {
+        if (!type.isPrimitive())
+        {
+            code.addAload(slot);
+        }
+        else if (Long.TYPE.equals(type))
+        {
+            code.addLload(slot);
+        }
+        else if (Float.TYPE.equals(type))
+        {
+            code.addFload(slot);
+        }
+        else if (Double.TYPE.equals(type))
+        {
+            code.addDload(slot);
+        }
+        else
+        {
+            code.addIload(slot);
+        }
+    }
+
+    private static char primitiveDescriptorOf(Class<?> type)
+    {
+        if (Void.TYPE.equals(type))
+        {
+            return 'V';
+        }
+        if (Boolean.TYPE.equals(type))
+        {
+            return 'Z';
+        }
+        if (Byte.TYPE.equals(type))
+        {
+            return 'B';
+        }
+        if (Character.TYPE.equals(type))
+        {
+            return 'C';
+        }
+        if (Short.TYPE.equals(type))
+        {
+            return 'S';
+        }
+        if (Integer.TYPE.equals(type))
+        {
+            return 'I';
+        }
+        if (Long.TYPE.equals(type))
+        {
+            return 'J';
+        }
+        if (Float.TYPE.equals(type))
+        {
+            return 'F';
+        }
+        return 'D';
+    }
+
+    private static int sizeOf(Class<?> type)
+    {
+        return Long.TYPE.equals(type) || Double.TYPE.equals(type) ? 2 : 1;
+    }
+
+    private BytecodeUtils()
+    {
+        // Hiding constructor in utility class!
+    }
+}
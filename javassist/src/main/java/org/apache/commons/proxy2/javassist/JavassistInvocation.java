@@ -17,21 +17,27 @@
 
 package org.apache.commons.proxy2.javassist;
 
+import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javassist.CannotCompileException;
 import javassist.CtClass;
 import javassist.CtConstructor;
-import javassist.CtMethod;
+import javassist.CtField;
+import javassist.Modifier;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.proxy2.Invocation;
 import org.apache.commons.proxy2.ProxyUtils;
+import org.apache.commons.proxy2.impl.ConcurrentWeakIdentityMap;
+import org.apache.commons.proxy2.impl.MethodSignature;
 
 /**
  * A <a href="http://www.jboss.org/products/javassist">Javassist</a>-based {@link Invocation} implementation. This class
@@ -46,8 +52,22 @@ public abstract class JavassistInvocation implements Invocation
     // Fields
     //******************************************************************************************************************
 
-    private static WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>> loaderToClassCache
-        = new WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>>();
+    /**
+     * Per-method invocation classes by {@link ClassLoader}, then by declaring class, then by {@link MethodSignature}.
+     * Declaring classes are weakly referenced and signatures reference no classes, so the cache keeps neither loaders
+     * nor declaring classes alive. Generated classes are weakly referenced.
+     */
+    private static final ConcurrentWeakIdentityMap<ClassLoader, ConcurrentWeakIdentityMap<Class<?>,
+            ConcurrentMap<MethodSignature, InvocationClassEntry>>> loaderToClassCache
+        = new ConcurrentWeakIdentityMap<ClassLoader, ConcurrentWeakIdentityMap<Class<?>,
+            ConcurrentMap<MethodSignature, InvocationClassEntry>>>();
+
+    private static final Class<?>[] SUPER_CONSTRUCTOR_PARAMETER_TYPES = { Object.class, Object.class, Method.class,
+            Object[].class };
+    private static final String METHOD_INDEX_FIELD = "methodIndex";
+    private static final String PROCEED_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Object.class);
+    private static final String TARGET_GETTER_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Object.class);
+    private static final String ARGUMENTS_GETTER_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Object[].class);
 
     /** The proxy object */
     private final Object proxy;
@@ -65,91 +85,145 @@ public abstract class JavassistInvocation implements Invocation
     // Static Methods
     //******************************************************************************************************************
 
-    private static String createCastExpression(Class<?> type, String objectToCast)
+    /**
+     * Adds code invoking <code>interfaceMethod</code> on the target with the arguments found in local variable
+     * <code>1</code>, and returning the (boxed) result.
+     */
+    private static void addProceed(Bytecode code, Method interfaceMethod)
     {
-        if (!type.isPrimitive())
+        code.addAload(0);
+        code.addInvokevirtual(JavassistInvocation.class.getName(), "getTarget", TARGET_GETTER_DESCRIPTOR);
+        code.addCheckcast(interfaceMethod.getDeclaringClass().getName());
+        final Class<?>[] argumentTypes = interfaceMethod.getParameterTypes();
+        for (int i = 0; i < argumentTypes.length; ++i)
+        {
+            code.addAload(1);
+            code.addIconst(i);
+            code.addOpcode(Opcode.AALOAD);
+            BytecodeUtils.addUnbox(code, argumentTypes[i]);
+        }
+        BytecodeUtils.addInvoke(code, interfaceMethod);
+        final Class<?> returnType = interfaceMethod.getReturnType();
+        if (Void.TYPE.equals(returnType))
         {
-            return "( " + ProxyUtils.getJavaClassName(type) + " )" + objectToCast;
+            code.addOpcode(Opcode.ACONST_NULL);
         }
         else
         {
-            return "( ( " + ProxyUtils.getWrapperClass(type).getName() + " )" + objectToCast + " )." + type.getName()
-                    + "Value()";
+            BytecodeUtils.addBox(code, returnType);
         }
+        code.addOpcode(Opcode.ARETURN);
+    }
+
+    /**
+     * Stores the arguments in local variable <code>1</code>.
+     */
+    private static void addStoreArguments(Bytecode code)
+    {
+        code.addAload(0);
+        code.addInvokevirtual(JavassistInvocation.class.getName(), "getArguments", ARGUMENTS_GETTER_DESCRIPTOR);
+        code.addAstore(1);
+    }
+
+    private static void addConstructor(ClassLoader classLoader, CtClass ctClass, Class<?>[] parameterTypes,
+            Bytecode code) throws CannotCompileException
+    {
+        final CtConstructor constructor = new CtConstructor(JavassistUtils.resolve(classLoader, parameterTypes),
+                ctClass);
+        BytecodeUtils.setCode(constructor, code);
+        ctClass.addConstructor(constructor);
+    }
+
+    private static Bytecode createSuperConstructorCall(CtClass ctClass, Class<?>[] parameterTypes)
+    {
+        final Bytecode code = BytecodeUtils.newBytecode(ctClass, parameterTypes, 0);
+        code.addAload(0);
+        BytecodeUtils.addLoadParameters(code, SUPER_CONSTRUCTOR_PARAMETER_TYPES, 1);
+        code.addInvokespecial(JavassistInvocation.class.getName(), MethodInfo.nameInit,
+                BytecodeUtils.methodDescriptorOf(Void.TYPE, SUPER_CONSTRUCTOR_PARAMETER_TYPES));
+        return code;
     }
 
     private static Class<?> createInvocationClass(ClassLoader classLoader, Method interfaceMethod)
             throws CannotCompileException
     {
-        final CtClass ctClass = JavassistUtils.createClass(getSimpleName(interfaceMethod.getDeclaringClass()) + "_"
-                + interfaceMethod.getName() + "_invocation", JavassistInvocation.class);
-        final CtConstructor constructor = new CtConstructor(JavassistUtils.resolve(new Class[] { Object.class,
-                Object.class, Method.class, Object[].class }), ctClass);
-        constructor.setBody("{\n\tsuper($$);\n}");
-        ctClass.addConstructor(constructor);
-        final CtMethod proceedMethod = new CtMethod(JavassistUtils.resolve(Object.class), "proceed",
-                JavassistUtils.resolve(new Class[0]), ctClass);
-        final Class<?>[] argumentTypes = interfaceMethod.getParameterTypes();
-        final StringBuilder proceedBody = new StringBuilder("{\n");
-        if (!Void.TYPE.equals(interfaceMethod.getReturnType()))
+        final CtClass ctClass = JavassistUtils.createClass(classLoader,
+                getSimpleName(interfaceMethod.getDeclaringClass()) + "_" + interfaceMethod.getName() + "_invocation",
+                JavassistInvocation.class);
+        final Bytecode constructorCode = createSuperConstructorCall(ctClass, SUPER_CONSTRUCTOR_PARAMETER_TYPES);
+        constructorCode.addOpcode(Opcode.RETURN);
+        addConstructor(classLoader, ctClass, SUPER_CONSTRUCTOR_PARAMETER_TYPES, constructorCode);
+
+        final Bytecode proceedCode = BytecodeUtils.newBytecode(ctClass, new Class[0], 1);
+        addStoreArguments(proceedCode);
+        addProceed(proceedCode, interfaceMethod);
+        BytecodeUtils.addMethod(ctClass, "proceed", PROCEED_DESCRIPTOR, proceedCode);
+        return JavassistUtils.toClassAndDetach(ctClass, classLoader);
+    }
+
+    /**
+     * Creates a method invocation class able to invoke any of the supplied interface methods. Its constructor takes the
+     * index of the invoked method in <code>interfaceMethods</code> as an additional last argument, and
+     * {@link #proceed()} dispatches on it with a <code>tableswitch</code>. Methods for which <code>null</code> is
+     * passed are not supported.
+     * 
+     * @param classLoader
+     *            the classloader to use
+     * @param baseName
+     *            the base name for the class
+     * @param interfaceMethods
+     *            the interface methods
+     * @return the invocation class
+     * @throws CannotCompileException
+     *             if a compilation error occurs
+     */
+    static Class<?> createSharedInvocationClass(ClassLoader classLoader, String baseName, Method[] interfaceMethods)
+            throws CannotCompileException
+    {
+        final CtClass ctClass = JavassistUtils.createClass(classLoader, baseName + "_invocation",
+                JavassistInvocation.class);
+        final CtField indexField = new CtField(CtClass.intType, METHOD_INDEX_FIELD, ctClass);
+        indexField.setModifiers(Modifier.PRIVATE | Modifier.FINAL);
+        ctClass.addField(indexField);
+
+        final Class<?>[] constructorParameterTypes = ArrayUtils.add(SUPER_CONSTRUCTOR_PARAMETER_TYPES, Integer.TYPE);
+        final Bytecode constructorCode = createSuperConstructorCall(ctClass, constructorParameterTypes);
+        constructorCode.addAload(0);
+        constructorCode.addIload(SUPER_CONSTRUCTOR_PARAMETER_TYPES.length + 1);
+        constructorCode.addPutfield(ctClass.getName(), METHOD_INDEX_FIELD, BytecodeUtils.descriptorOf(Integer.TYPE));
+        constructorCode.addOpcode(Opcode.RETURN);
+        addConstructor(classLoader, ctClass, constructorParameterTypes, constructorCode);
+
+        final Bytecode proceedCode = BytecodeUtils.newBytecode(ctClass, new Class[0], 1);
+        addStoreArguments(proceedCode);
+        proceedCode.addAload(0);
+        proceedCode.addGetfield(ctClass.getName(), METHOD_INDEX_FIELD, BytecodeUtils.descriptorOf(Integer.TYPE));
+        final int switchPc = BytecodeUtils.addTableSwitch(proceedCode, interfaceMethods.length);
+        for (int i = 0; i < interfaceMethods.length; ++i)
         {
-            proceedBody.append("\treturn ");
-            if (interfaceMethod.getReturnType().isPrimitive())
+            if (interfaceMethods[i] != null)
             {
-                proceedBody.append("new ");
-                proceedBody.append(ProxyUtils.getWrapperClass(interfaceMethod.getReturnType()).getName());
-                proceedBody.append("( ");
+                BytecodeUtils.setSwitchTarget(proceedCode, switchPc, i, proceedCode.currentPc());
+                addProceed(proceedCode, interfaceMethods[i]);
             }
         }
-        else
-        {
-            proceedBody.append("\t");
-        }
-        proceedBody.append("( (");
-        proceedBody.append(ProxyUtils.getJavaClassName(interfaceMethod.getDeclaringClass()));
-        proceedBody.append(" )getTarget() ).");
-        proceedBody.append(interfaceMethod.getName());
-        proceedBody.append("(");
-        for (int i = 0; i < argumentTypes.length; ++i)
+        final int defaultPc = proceedCode.currentPc();
+        BytecodeUtils.setSwitchTarget(proceedCode, switchPc, -1, defaultPc);
+        for (int i = 0; i < interfaceMethods.length; ++i)
         {
-            final Class<?> argumentType = argumentTypes[i];
-            proceedBody.append(createCastExpression(argumentType, "getArguments()[" + i + "]"));
-            if (i != argumentTypes.length - 1)
+            if (interfaceMethods[i] == null)
             {
-                proceedBody.append(", ");
+                BytecodeUtils.setSwitchTarget(proceedCode, switchPc, i, defaultPc);
             }
         }
-        if (!Void.TYPE.equals(interfaceMethod.getReturnType()) && interfaceMethod.getReturnType().isPrimitive())
-        {
-            proceedBody.append(") );\n");
-        }
-        else
-        {
-            proceedBody.append(");\n");
-        }
-        if (Void.TYPE.equals(interfaceMethod.getReturnType()))
-        {
-            proceedBody.append("\treturn null;\n");
-        }
-        proceedBody.append("}");
-        final String body = proceedBody.toString();
-        proceedMethod.setBody(body);
-        ctClass.addMethod(proceedMethod);
-
-        @SuppressWarnings("deprecation")
-        final Class<?> invocationClass = ctClass.toClass(classLoader);
-        return invocationClass;
-    }
-
-    private static Map<String, WeakReference<Class<?>>> getClassCache(ClassLoader classLoader)
-    {
-        Map<String, WeakReference<Class<?>>> cache = loaderToClassCache.get(classLoader);
-        if (cache == null)
-        {
-            cache = new HashMap<String, WeakReference<Class<?>>>();
-            loaderToClassCache.put(classLoader, cache);
-        }
-        return cache;
+        proceedCode.addNew(IllegalStateException.class.getName());
+        proceedCode.addOpcode(Opcode.DUP);
+        proceedCode.addLdc("Unknown method index");
+        proceedCode.addInvokespecial(IllegalStateException.class.getName(), MethodInfo.nameInit,
+                BytecodeUtils.methodDescriptorOf(Void.TYPE, String.class));
+        proceedCode.addOpcode(Opcode.ATHROW);
+        BytecodeUtils.addMethod(ctClass, "proceed", PROCEED_DESCRIPTOR, proceedCode);
+        return JavassistUtils.toClassAndDetach(ctClass, classLoader);
     }
 
     /**
@@ -163,31 +237,53 @@ public abstract class JavassistInvocation implements Invocation
      * @throws CannotCompileException
      *             if a compilation error occurs
      */
-    static synchronized Class<?> getMethodInvocationClass(ClassLoader classLoader, Method interfaceMethod)
+    static Class<?> getMethodInvocationClass(ClassLoader classLoader, Method interfaceMethod)
             throws CannotCompileException
     {
-        final Map<String, WeakReference<Class<?>>> classCache = getClassCache(classLoader);
-        final String key = toClassCacheKey(interfaceMethod);
-        final WeakReference<Class<?>> invocationClassRef = classCache.get(key);
-        Class<?> invocationClass;
-        if (invocationClassRef == null)
+        final ConcurrentMap<MethodSignature, InvocationClassEntry> classCache = getClassCache(classLoader,
+                interfaceMethod.getDeclaringClass());
+        final MethodSignature key = new MethodSignature(interfaceMethod);
+        InvocationClassEntry entry = classCache.get(key);
+        if (entry == null)
         {
-            invocationClass = createInvocationClass(classLoader, interfaceMethod);
-            classCache.put(key, new WeakReference<Class<?>>(invocationClass));
+            final InvocationClassEntry newEntry = new InvocationClassEntry();
+            entry = classCache.putIfAbsent(key, newEntry);
+            if (entry == null)
+            {
+                entry = newEntry;
+            }
         }
-        else
+        final Class<?> invocationClass = entry.get();
+        return invocationClass == null ? entry.generate(classLoader, interfaceMethod) : invocationClass;
+    }
+
+    private static ConcurrentMap<MethodSignature, InvocationClassEntry> getClassCache(ClassLoader classLoader,
+            Class<?> declaringClass)
+    {
+        ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>> loaderCache
+            = loaderToClassCache.get(classLoader);
+        if (loaderCache == null)
         {
-            synchronized (invocationClassRef)
+            final ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>> newCache
+                = new ConcurrentWeakIdentityMap<Class<?>, ConcurrentMap<MethodSignature, InvocationClassEntry>>();
+            loaderCache = loaderToClassCache.putIfAbsent(classLoader, newCache);
+            if (loaderCache == null)
             {
-                invocationClass = invocationClassRef.get();
-                if (invocationClass == null)
-                {
-                    invocationClass = createInvocationClass(classLoader, interfaceMethod);
-                    classCache.put(key, new WeakReference<Class<?>>(invocationClass));
-                }
+                loaderCache = newCache;
             }
         }
-        return invocationClass;
+        ConcurrentMap<MethodSignature, InvocationClassEntry> cache = loaderCache.get(declaringClass);
+        if (cache == null)
+        {
+            final ConcurrentMap<MethodSignature, InvocationClassEntry> newCache
+                = new ConcurrentHashMap<MethodSignature, InvocationClassEntry>();
+            cache = loaderCache.putIfAbsent(declaringClass, newCache);
+            if (cache == null)
+            {
+                cache = newCache;
+            }
+        }
+        return cache;
     }
 
     private static String getSimpleName(Class<?> c)
@@ -197,11 +293,6 @@ public abstract class JavassistInvocation implements Invocation
         return ndx == -1 ? name : name.substring(ndx + 1);
     }
 
-    private static String toClassCacheKey(Method method)
-    {
-        return String.valueOf(method);
-    }
-
     //******************************************************************************************************************
     // Constructors
     //******************************************************************************************************************
@@ -239,4 +330,33 @@ public abstract class JavassistInvocation implements Invocation
     {
         return proxy;
     }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * Holds a weak reference to a generated invocation class. Generation is guarded by the entry's own monitor.
+     */
+    private static final class InvocationClassEntry
+    {
+        private volatile Reference<Class<?>> invocationClassReference;
+
+        Class<?> get()
+        {
+            final Reference<Class<?>> ref = invocationClassReference;
+            return ref == null ? null : ref.get();
+        }
+
+        synchronized Class<?> generate(ClassLoader classLoader, Method interfaceMethod) throws CannotCompileException
+        {
+            Class<?> invocationClass = get();
+            if (invocationClass == null)
+            {
+                invocationClass = createInvocationClass(classLoader, interfaceMethod);
+                invocationClassReference = new WeakReference<Class<?>>(invocationClass);
+            }
+            return invocationClass;
+        }
+    }
 }
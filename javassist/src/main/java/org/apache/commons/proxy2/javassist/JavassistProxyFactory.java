@@ -17,14 +17,20 @@
 
 package org.apache.commons.proxy2.javassist;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 
 import javassist.CannotCompileException;
 import javassist.CtClass;
 import javassist.CtConstructor;
-import javassist.CtMethod;
+import javassist.CtField;
+import javassist.Modifier;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
 
 import org.apache.commons.proxy2.Interceptor;
+import org.apache.commons.proxy2.Invocation;
 import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
 import org.apache.commons.proxy2.ProxyUtils;
@@ -32,6 +38,7 @@ import org.apache.commons.proxy2.exception.ProxyFactoryException;
 import org.apache.commons.proxy2.impl.AbstractProxyClassGenerator;
 import org.apache.commons.proxy2.impl.AbstractSubclassingProxyFactory;
 import org.apache.commons.proxy2.impl.ProxyClassCache;
+import org.apache.commons.proxy2.impl.ProxyConstructorCache;
 
 public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
 {
@@ -39,26 +46,162 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
     // Fields
     //******************************************************************************************************************
 
-    private static final String GET_METHOD_METHOD_NAME = "_javassistGetMethod";
+    private static final String METHOD_FIELD_PREFIX = "_javassistMethod";
+    private static final Class<?>[] EQUALS_PARAMETER_TYPES = { Object.class };
+    private static final String METHOD_DESCRIPTOR = BytecodeUtils.descriptorOf(Method.class);
+    private static final String GET_METHOD_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Method.class, String.class,
+            Class[].class);
+    private static final String INTERCEPT_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Object.class, Invocation.class);
+    private static final String INVOKE_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Object.class, Object.class,
+            Method.class, Object[].class);
+    private static final String INVOCATION_CONSTRUCTOR_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(Void.TYPE,
+            Object.class, Object.class, Method.class, Object[].class);
+    private static final String SHARED_INVOCATION_CONSTRUCTOR_DESCRIPTOR = BytecodeUtils.methodDescriptorOf(
+            Void.TYPE, Object.class, Object.class, Method.class, Object[].class, Integer.TYPE);
 
     private static final ProxyClassCache DELEGATING_PROXY_CACHE = new ProxyClassCache(
             new DelegatingProxyClassGenerator());
     private static final ProxyClassCache INTERCEPTOR_PROXY_CACHE = new ProxyClassCache(
-            new InterceptorProxyClassGenerator());
+            new InterceptorProxyClassGenerator(false));
+    private static final ProxyClassCache SHARED_INVOCATION_INTERCEPTOR_PROXY_CACHE = new ProxyClassCache(
+            new InterceptorProxyClassGenerator(true));
     private static final ProxyClassCache INVOKER_PROXY_CACHE = new ProxyClassCache(new InvokerProxyClassGenerator());
+    private static final ProxyConstructorCache DELEGATING_CONSTRUCTOR_CACHE = new ProxyConstructorCache(
+            ObjectProvider.class);
+    private static final ProxyConstructorCache INTERCEPTOR_CONSTRUCTOR_CACHE = new ProxyConstructorCache(Object.class,
+            Interceptor.class);
+    private static final ProxyConstructorCache INVOKER_CONSTRUCTOR_CACHE = new ProxyConstructorCache(Invoker.class);
+
+    private final ProxyClassCache interceptorProxyCache;
 
     //******************************************************************************************************************
     // Static Methods
     //******************************************************************************************************************
 
-    private static void addGetMethodMethod(CtClass proxyClass) throws CannotCompileException
+    /**
+     * Adds the static field through which {@link ProxyConstructorCache} keeps the proxy constructor reachable.
+     */
+    private static void addConstructorField(ClassLoader classLoader, CtClass proxyClass) throws CannotCompileException
+    {
+        final CtField field = new CtField(JavassistUtils.resolve(classLoader, Constructor.class),
+                ProxyConstructorCache.CONSTRUCTOR_FIELD_NAME, proxyClass);
+        field.setModifiers(Modifier.PRIVATE | Modifier.STATIC);
+        proxyClass.addField(field);
+    }
+
+    /**
+     * Adds a <code>private static final</code> {@link Method} field for each of <code>methods</code> (except
+     * {@link Object#equals(Object)} and {@link Object#hashCode()}), resolved once by the class initializer.
+     */
+    private static void addMethodFields(ClassLoader classLoader, CtClass proxyClass, Method[] methods)
+            throws CannotCompileException
+    {
+        final Bytecode code = new Bytecode(proxyClass.getClassFile().getConstPool(), 0, 0);
+        for (int i = 0; i < methods.length; ++i)
+        {
+            if (!ProxyUtils.isEqualsMethod(methods[i]) && !ProxyUtils.isHashCode(methods[i]))
+            {
+                final CtField field = new CtField(JavassistUtils.resolve(classLoader, Method.class),
+                        METHOD_FIELD_PREFIX + i, proxyClass);
+                field.setModifiers(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL);
+                proxyClass.addField(field);
+
+                BytecodeUtils.addClassLiteral(code, methods[i].getDeclaringClass(), proxyClass.getName());
+                code.addLdc(methods[i].getName());
+                final Class<?>[] parameterTypes = methods[i].getParameterTypes();
+                code.addIconst(parameterTypes.length);
+                code.addAnewarray(Class.class.getName());
+                for (int j = 0; j < parameterTypes.length; ++j)
+                {
+                    code.addOpcode(Opcode.DUP);
+                    code.addIconst(j);
+                    BytecodeUtils.addClassLiteral(code, parameterTypes[j], proxyClass.getName());
+                    code.addOpcode(Opcode.AASTORE);
+                }
+                code.addInvokevirtual(Class.class.getName(), "getMethod", GET_METHOD_DESCRIPTOR);
+                code.addPutstatic(proxyClass.getName(), METHOD_FIELD_PREFIX + i, METHOD_DESCRIPTOR);
+            }
+        }
+        code.addOpcode(Opcode.RETURN);
+        BytecodeUtils.setCode(proxyClass.makeClassInitializer(), code);
+    }
+
+    /**
+     * Adds a constructor storing its arguments in the supplied fields, after calling the no-argument constructor of
+     * <code>superclass</code>.
+     */
+    private static void addConstructor(ClassLoader classLoader, CtClass proxyClass, Class<?> superclass,
+            Class<?>[] parameterTypes, String[] fieldNames) throws CannotCompileException
+    {
+        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, parameterTypes, 0);
+        code.addAload(0);
+        code.addInvokespecial(superclass.getName(), MethodInfo.nameInit, BytecodeUtils.methodDescriptorOf(Void.TYPE));
+        for (int i = 0; i < parameterTypes.length; ++i)
+        {
+            code.addAload(0);
+            code.addAload(i + 1);
+            code.addPutfield(proxyClass.getName(), fieldNames[i], BytecodeUtils.descriptorOf(parameterTypes[i]));
+        }
+        code.addOpcode(Opcode.RETURN);
+        final CtConstructor constructor = new CtConstructor(JavassistUtils.resolve(classLoader, parameterTypes),
+                proxyClass);
+        BytecodeUtils.setCode(constructor, code);
+        proxyClass.addConstructor(constructor);
+    }
+
+    private static void addEqualsMethod(CtClass proxyClass) throws CannotCompileException
+    {
+        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, EQUALS_PARAMETER_TYPES, 0);
+        code.addAload(0);
+        code.addAload(1);
+        final int branchPc = code.currentPc();
+        code.addOpcode(Opcode.IF_ACMPNE);
+        code.addIndex(0);
+        code.addIconst(1);
+        code.addOpcode(Opcode.IRETURN);
+        code.write16bit(branchPc + 1, code.currentPc() - branchPc);
+        code.addIconst(0);
+        code.addOpcode(Opcode.IRETURN);
+        BytecodeUtils.addMethod(proxyClass, "equals", BytecodeUtils.methodDescriptorOf(Boolean.TYPE,
+                EQUALS_PARAMETER_TYPES), code);
+    }
+
+    private static void addHashCodeMethod(CtClass proxyClass) throws CannotCompileException
     {
-        final CtMethod method = new CtMethod(JavassistUtils.resolve(Method.class), GET_METHOD_METHOD_NAME,
-                JavassistUtils.resolve(new Class[] { String.class, String.class, Class[].class }), proxyClass);
-        final String body = "try { return Class.forName($1).getMethod($2, $3); } catch( Exception e ) "
-                + "{ throw new RuntimeException(\"Unable to look up method.\", e); }";
-        method.setBody(body);
-        proxyClass.addMethod(method);
+        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, new Class[0], 0);
+        code.addAload(0);
+        code.addInvokestatic(System.class.getName(), "identityHashCode",
+                BytecodeUtils.methodDescriptorOf(Integer.TYPE, Object.class));
+        code.addOpcode(Opcode.IRETURN);
+        BytecodeUtils.addMethod(proxyClass, "hashCode", BytecodeUtils.methodDescriptorOf(Integer.TYPE), code);
+    }
+
+    //******************************************************************************************************************
+    // Constructors
+    //******************************************************************************************************************
+
+    /**
+     * Create a new JavassistProxyFactory instance generating one {@link org.apache.commons.proxy2.Invocation} class per
+     * proxied method.
+     */
+    public JavassistProxyFactory()
+    {
+        this(false);
+    }
+
+    /**
+     * Create a new JavassistProxyFactory instance.
+     * 
+     * @param sharedInvocationClasses
+     *            if <code>true</code>, interceptor proxies use a single {@link org.apache.commons.proxy2.Invocation}
+     *            class per proxy class, which dispatches on a method index, rather than one class per proxied method;
+     *            this saves classes on large interfaces
+     * @since 2.1
+     */
+    public JavassistProxyFactory(boolean sharedInvocationClasses)
+    {
+        this.interceptorProxyCache = sharedInvocationClasses ? SHARED_INVOCATION_INTERCEPTOR_PROXY_CACHE
+                : INTERCEPTOR_PROXY_CACHE;
     }
 
     //******************************************************************************************************************
@@ -77,7 +220,7 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
             @SuppressWarnings("unchecked") // type inference
             final Class<? extends T> clazz = (Class<? extends T>) DELEGATING_PROXY_CACHE.getProxyClass(classLoader,
                     proxyClasses);
-            return clazz.getConstructor(ObjectProvider.class).newInstance(targetProvider);
+            return clazz.cast(DELEGATING_CONSTRUCTOR_CACHE.getConstructor(clazz).newInstance(targetProvider));
         }
         catch (Exception e)
         {
@@ -95,9 +238,9 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
         try
         {
             @SuppressWarnings("unchecked") // type inference
-            final Class<? extends T> clazz = (Class<? extends T>) INTERCEPTOR_PROXY_CACHE.getProxyClass(classLoader,
+            final Class<? extends T> clazz = (Class<? extends T>) interceptorProxyCache.getProxyClass(classLoader,
                     proxyClasses);
-            return clazz.getConstructor(Object.class, Interceptor.class).newInstance(target, interceptor);
+            return clazz.cast(INTERCEPTOR_CONSTRUCTOR_CACHE.getConstructor(clazz).newInstance(target, interceptor));
         }
         catch (Exception e)
         {
@@ -116,7 +259,7 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
             @SuppressWarnings("unchecked") // type inference
             final Class<? extends T> clazz = (Class<? extends T>) INVOKER_PROXY_CACHE.getProxyClass(classLoader,
                     proxyClasses);
-            return clazz.getConstructor(Invoker.class).newInstance(invoker);
+            return clazz.cast(INVOKER_CONSTRUCTOR_CACHE.getConstructor(clazz).newInstance(invoker));
         }
         catch (Exception e)
         {
@@ -135,30 +278,37 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
         {
             try
             {
-                final CtClass proxyClass = JavassistUtils.createClass(getSuperclass(proxyClasses));
-                JavassistUtils.addField(ObjectProvider.class, "provider", proxyClass);
-                final CtConstructor proxyConstructor = new CtConstructor(
-                        JavassistUtils.resolve(new Class[] { ObjectProvider.class }), proxyClass);
-                proxyConstructor.setBody("{ this.provider = $1; }");
-                proxyClass.addConstructor(proxyConstructor);
-                JavassistUtils.addInterfaces(proxyClass, toInterfaces(proxyClasses));
+                final Class<?> superclass = getSuperclass(proxyClasses);
+                final CtClass proxyClass = JavassistUtils.createClass(classLoader, superclass);
+                JavassistUtils.addField(classLoader, ObjectProvider.class, "provider", proxyClass);
+                addConstructorField(classLoader, proxyClass);
+                addConstructor(classLoader, proxyClass, superclass, new Class[] { ObjectProvider.class },
+                        new String[] { "provider" });
+                JavassistUtils.addInterfaces(classLoader, proxyClass, toInterfaces(proxyClasses));
                 addHashCodeMethod(proxyClass);
                 addEqualsMethod(proxyClass);
+                final String providerDescriptor = BytecodeUtils.descriptorOf(ObjectProvider.class);
                 final Method[] methods = getImplementationMethods(proxyClasses);
                 for (int i = 0; i < methods.length; ++i)
                 {
                     if (!ProxyUtils.isEqualsMethod(methods[i]) && !ProxyUtils.isHashCode(methods[i]))
                     {
                         final Method method = methods[i];
-                        final CtMethod ctMethod = new CtMethod(JavassistUtils.resolve(method.getReturnType()),
-                                method.getName(), JavassistUtils.resolve(method.getParameterTypes()), proxyClass);
-                        final String body = "{ return ( $r ) ( ( " + method.getDeclaringClass().getName()
-                                + " )provider.getObject() )." + method.getName() + "($$); }";
-                        ctMethod.setBody(body);
-                        proxyClass.addMethod(ctMethod);
+                        final Class<?>[] parameterTypes = method.getParameterTypes();
+                        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, parameterTypes, 0);
+                        code.addAload(0);
+                        code.addGetfield(proxyClass.getName(), "provider", providerDescriptor);
+                        code.addInvokeinterface(ObjectProvider.class.getName(), "getObject",
+                                BytecodeUtils.methodDescriptorOf(Object.class), 1);
+                        code.addCheckcast(method.getDeclaringClass().getName());
+                        BytecodeUtils.addLoadParameters(code, parameterTypes, 1);
+                        BytecodeUtils.addInvoke(code, method);
+                        BytecodeUtils.addReturn(code, method.getReturnType());
+                        BytecodeUtils.addMethod(proxyClass, method.getName(), BytecodeUtils.methodDescriptorOf(method),
+                                code);
                     }
                 }
-                return proxyClass.toClass(classLoader, null);
+                return JavassistUtils.toClassAndDetach(proxyClass, classLoader);
             }
             catch (CannotCompileException e)
             {
@@ -169,43 +319,70 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
 
     private static class InterceptorProxyClassGenerator extends AbstractProxyClassGenerator
     {
+        private final boolean sharedInvocationClasses;
+
+        InterceptorProxyClassGenerator(boolean sharedInvocationClasses)
+        {
+            this.sharedInvocationClasses = sharedInvocationClasses;
+        }
+
         @Override
         public Class<?> generateProxyClass(ClassLoader classLoader, Class<?>... proxyClasses)
         {
             try
             {
-                final CtClass proxyClass = JavassistUtils.createClass(getSuperclass(proxyClasses));
+                final Class<?> superclass = getSuperclass(proxyClasses);
+                final CtClass proxyClass = JavassistUtils.createClass(classLoader, superclass);
                 final Method[] methods = getImplementationMethods(proxyClasses);
-                JavassistUtils.addInterfaces(proxyClass, toInterfaces(proxyClasses));
-                JavassistUtils.addField(Object.class, "target", proxyClass);
-                JavassistUtils.addField(Interceptor.class, "interceptor", proxyClass);
-                addGetMethodMethod(proxyClass);
+                JavassistUtils.addInterfaces(classLoader, proxyClass, toInterfaces(proxyClasses));
+                JavassistUtils.addField(classLoader, Object.class, "target", proxyClass);
+                JavassistUtils.addField(classLoader, Interceptor.class, "interceptor", proxyClass);
+                addConstructorField(classLoader, proxyClass);
+                addMethodFields(classLoader, proxyClass, methods);
                 addHashCodeMethod(proxyClass);
                 addEqualsMethod(proxyClass);
-                final CtConstructor proxyConstructor = new CtConstructor(JavassistUtils.resolve(new Class[] {
-                        Object.class, Interceptor.class }), proxyClass);
-                proxyConstructor.setBody("{\n\tthis.target = $1;\n\tthis.interceptor = $2; }");
-                proxyClass.addConstructor(proxyConstructor);
+                addConstructor(classLoader, proxyClass, superclass, new Class[] { Object.class, Interceptor.class },
+                        new String[] { "target", "interceptor" });
+                final Class<?> sharedInvocationClass = sharedInvocationClasses ? createSharedInvocationClass(
+                        classLoader, proxyClass, methods) : null;
+                final String interceptorDescriptor = BytecodeUtils.descriptorOf(Interceptor.class);
+                final String targetDescriptor = BytecodeUtils.descriptorOf(Object.class);
                 for (int i = 0; i < methods.length; ++i)
                 {
                     if (!ProxyUtils.isEqualsMethod(methods[i]) && !ProxyUtils.isHashCode(methods[i]))
                     {
-                        final CtMethod method = new CtMethod(JavassistUtils.resolve(methods[i].getReturnType()),
-                                methods[i].getName(), JavassistUtils.resolve(methods[i].getParameterTypes()),
-                                proxyClass);
-                        final Class<?> invocationClass = JavassistInvocation.getMethodInvocationClass(classLoader,
-                                methods[i]);
-
-                        final String body = "{\n\t return ( $r ) interceptor.intercept( new "
-                                + invocationClass.getName() + "( this, target, " + GET_METHOD_METHOD_NAME + "(\""
-                                + methods[i].getDeclaringClass().getName() + "\", \"" + methods[i].getName()
-                                + "\", $sig), $args ) );\n }";
-                        method.setBody(body);
-                        proxyClass.addMethod(method);
+                        final Class<?> invocationClass = sharedInvocationClass == null ? JavassistInvocation
+                                .getMethodInvocationClass(classLoader, methods[i]) : sharedInvocationClass;
+                        final Class<?>[] parameterTypes = methods[i].getParameterTypes();
+                        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, parameterTypes, 0);
+                        code.addAload(0);
+                        code.addGetfield(proxyClass.getName(), "interceptor", interceptorDescriptor);
+                        code.addNew(invocationClass.getName());
+                        code.addOpcode(Opcode.DUP);
+                        code.addAload(0);
+                        code.addAload(0);
+                        code.addGetfield(proxyClass.getName(), "target", targetDescriptor);
+                        code.addGetstatic(proxyClass.getName(), METHOD_FIELD_PREFIX + i, METHOD_DESCRIPTOR);
+                        BytecodeUtils.addParameterArray(code, parameterTypes, 1);
+                        if (sharedInvocationClass == null)
+                        {
+                            code.addInvokespecial(invocationClass.getName(), MethodInfo.nameInit,
+                                    INVOCATION_CONSTRUCTOR_DESCRIPTOR);
+                        }
+                        else
+                        {
+                            code.addIconst(i);
+                            code.addInvokespecial(invocationClass.getName(), MethodInfo.nameInit,
+                                    SHARED_INVOCATION_CONSTRUCTOR_DESCRIPTOR);
+                        }
+                        code.addInvokeinterface(Interceptor.class.getName(), "intercept", INTERCEPT_DESCRIPTOR, 2);
+                        BytecodeUtils.addUnboxAndReturn(code, methods[i].getReturnType());
+                        BytecodeUtils.addMethod(proxyClass, methods[i].getName(),
+                                BytecodeUtils.methodDescriptorOf(methods[i]), code);
                     }
 
                 }
-                return proxyClass.toClass(classLoader, null);
+                return JavassistUtils.toClassAndDetach(proxyClass, classLoader);
             }
             catch (CannotCompileException e)
             {
@@ -215,21 +392,21 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
 
     }
 
-    private static void addEqualsMethod(CtClass proxyClass) throws CannotCompileException
-    {
-        final CtMethod equalsMethod = new CtMethod(JavassistUtils.resolve(Boolean.TYPE), "equals",
-                JavassistUtils.resolve(new Class[] { Object.class }), proxyClass);
-        final String body = "{\n\treturn this == $1;\n}";
-        equalsMethod.setBody(body);
-        proxyClass.addMethod(equalsMethod);
-    }
-
-    private static void addHashCodeMethod(CtClass proxyClass) throws CannotCompileException
+    /**
+     * Creates the single invocation class for the interceptor proxy class <code>proxyClass</code>.
+     */
+    private static Class<?> createSharedInvocationClass(ClassLoader classLoader, CtClass proxyClass, Method[] methods)
+            throws CannotCompileException
     {
-        final CtMethod hashCodeMethod = new CtMethod(JavassistUtils.resolve(Integer.TYPE), "hashCode", new CtClass[0],
-                proxyClass);
-        hashCodeMethod.setBody("{\n\treturn System.identityHashCode(this);\n}");
-        proxyClass.addMethod(hashCodeMethod);
+        final Method[] invocationMethods = new Method[methods.length];
+        for (int i = 0; i < methods.length; ++i)
+        {
+            if (!ProxyUtils.isEqualsMethod(methods[i]) && !ProxyUtils.isHashCode(methods[i]))
+            {
+                invocationMethods[i] = methods[i];
+            }
+        }
+        return JavassistInvocation.createSharedInvocationClass(classLoader, proxyClass.getName(), invocationMethods);
     }
 
     private static class InvokerProxyClassGenerator extends AbstractProxyClassGenerator
@@ -239,32 +416,36 @@ public class JavassistProxyFactory extends AbstractSubclassingProxyFactory
         {
             try
             {
-                final CtClass proxyClass = JavassistUtils.createClass(getSuperclass(proxyClasses));
+                final Class<?> superclass = getSuperclass(proxyClasses);
+                final CtClass proxyClass = JavassistUtils.createClass(classLoader, superclass);
                 final Method[] methods = getImplementationMethods(proxyClasses);
-                JavassistUtils.addInterfaces(proxyClass, toInterfaces(proxyClasses));
-                JavassistUtils.addField(Invoker.class, "invoker", proxyClass);
-                final CtConstructor proxyConstructor = new CtConstructor(
-                        JavassistUtils.resolve(new Class[] { Invoker.class }), proxyClass);
-                proxyConstructor.setBody("{\n\tthis.invoker = $1; }");
-                proxyClass.addConstructor(proxyConstructor);
-                addGetMethodMethod(proxyClass);
+                JavassistUtils.addInterfaces(classLoader, proxyClass, toInterfaces(proxyClasses));
+                JavassistUtils.addField(classLoader, Invoker.class, "invoker", proxyClass);
+                addConstructorField(classLoader, proxyClass);
+                addConstructor(classLoader, proxyClass, superclass, new Class[] { Invoker.class },
+                        new String[] { "invoker" });
+                addMethodFields(classLoader, proxyClass, methods);
                 addHashCodeMethod(proxyClass);
                 addEqualsMethod(proxyClass);
+                final String invokerDescriptor = BytecodeUtils.descriptorOf(Invoker.class);
                 for (int i = 0; i < methods.length; ++i)
                 {
                     if (!ProxyUtils.isEqualsMethod(methods[i]) && !ProxyUtils.isHashCode(methods[i]))
                     {
-                        final CtMethod method = new CtMethod(JavassistUtils.resolve(methods[i].getReturnType()),
-                                methods[i].getName(), JavassistUtils.resolve(methods[i].getParameterTypes()),
-                                proxyClass);
-                        final String body = "{\n\t return ( $r ) invoker.invoke( this, " + GET_METHOD_METHOD_NAME
-                                + "(\"" + methods[i].getDeclaringClass().getName() + "\", \"" + methods[i].getName()
-                                + "\", $sig), $args );\n }";
-                        method.setBody(body);
-                        proxyClass.addMethod(method);
+                        final Class<?>[] parameterTypes = methods[i].getParameterTypes();
+                        final Bytecode code = BytecodeUtils.newBytecode(proxyClass, parameterTypes, 0);
+                        code.addAload(0);
+                        code.addGetfield(proxyClass.getName(), "invoker", invokerDescriptor);
+                        code.addAload(0);
+                        code.addGetstatic(proxyClass.getName(), METHOD_FIELD_PREFIX + i, METHOD_DESCRIPTOR);
+                        BytecodeUtils.addParameterArray(code, parameterTypes, 1);
+                        code.addInvokeinterface(Invoker.class.getName(), "invoke", INVOKE_DESCRIPTOR, 4);
+                        BytecodeUtils.addUnboxAndReturn(code, methods[i].getReturnType());
+                        BytecodeUtils.addMethod(proxyClass, methods[i].getName(),
+                                BytecodeUtils.methodDescriptorOf(methods[i]), code);
                     }
                 }
-                return proxyClass.toClass(classLoader, null);
+                return JavassistUtils.toClassAndDetach(proxyClass, classLoader);
             }
             catch (CannotCompileException e)
             {
@@ -14,11 +14,8 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.commons.proxy2.javassist;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javassist.CannotCompileException;
@@ -30,9 +27,15 @@ import javassist.NotFoundException;
 
 import org.apache.commons.proxy2.ProxyUtils;
 import org.apache.commons.proxy2.exception.ObjectProviderException;
+import org.apache.commons.proxy2.impl.ConcurrentWeakIdentityMap;
 
 /**
  * Some utility methods for dealing with Javassist. This class is not part of the public API!
+ * <p>
+ * Each {@link ClassLoader} gets its own {@link ClassPool}, which only sees that {@link ClassLoader} (and the system
+ * class path) and is released along with it. Resolved {@link CtClass}es are remembered per {@link ClassPool}, so that
+ * resolution does not lock.
+ * </p>
  * 
  * @since 1.0
  */
@@ -44,8 +47,9 @@ final class JavassistUtils
 
     public static final String DEFAULT_BASE_NAME = "JavassistUtilsGenerated";
     private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
-    private static final ClassPool CLASS_POOL = new ClassPool();
-    private static final Set<ClassLoader> CLASS_LOADERS = new HashSet<ClassLoader>();
+    private static final LoaderClassPool SYSTEM_CLASS_POOL;
+    private static final ConcurrentWeakIdentityMap<ClassLoader, LoaderClassPool> CLASS_POOLS
+        = new ConcurrentWeakIdentityMap<ClassLoader, LoaderClassPool>();
 
     //******************************************************************************************************************
     // Static Methods
@@ -53,12 +57,16 @@ final class JavassistUtils
 
     static
     {
-        CLASS_POOL.appendClassPath(new LoaderClassPath(ClassLoader.getSystemClassLoader()));
+        final ClassPool classPool = new ClassPool();
+        classPool.appendClassPath(new LoaderClassPath(ClassLoader.getSystemClassLoader()));
+        SYSTEM_CLASS_POOL = new LoaderClassPool(classPool);
     }
 
     /**
      * Adds a field to a class.
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param fieldType
      *            the field's type
      * @param fieldName
@@ -68,103 +76,177 @@ final class JavassistUtils
      * @throws CannotCompileException
      *             if a compilation problem occurs
      */
-    public static void addField(Class<?> fieldType, String fieldName, CtClass enclosingClass)
+    public static void addField(ClassLoader classLoader, Class<?> fieldType, String fieldName, CtClass enclosingClass)
             throws CannotCompileException
     {
-        enclosingClass.addField(new CtField(resolve(fieldType), fieldName, enclosingClass));
+        enclosingClass.addField(new CtField(resolve(classLoader, fieldType), fieldName, enclosingClass));
     }
 
     /**
      * Adds interfaces to a {@link CtClass}
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param ctClass
      *            the {@link CtClass}
      * @param proxyClasses
      *            the interfaces
      */
-    public static void addInterfaces(CtClass ctClass, Class<?>[] proxyClasses)
+    public static void addInterfaces(ClassLoader classLoader, CtClass ctClass, Class<?>[] proxyClasses)
     {
         for (int i = 0; i < proxyClasses.length; i++)
         {
             Class<?> proxyInterface = proxyClasses[i];
-            ctClass.addInterface(resolve(proxyInterface));
+            ctClass.addInterface(resolve(classLoader, proxyInterface));
         }
     }
 
     /**
      * Creates a new {@link CtClass} derived from the Java {@link Class} using the default base name.
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param superclass
      *            the superclass
      * @return the new derived {@link CtClass}
      */
-    public static CtClass createClass(Class<?> superclass)
+    public static CtClass createClass(ClassLoader classLoader, Class<?> superclass)
     {
-        return createClass(DEFAULT_BASE_NAME, superclass);
+        return createClass(classLoader, DEFAULT_BASE_NAME, superclass);
     }
 
     /**
      * Creates a new {@link CtClass} derived from the Java {@link Class} using the supplied base name.
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param baseName
      *            the base name
      * @param superclass
      *            the superclass
      * @return the new derived {@link CtClass}
      */
-    public static synchronized CtClass createClass(String baseName, Class<?> superclass)
+    public static CtClass createClass(ClassLoader classLoader, String baseName, Class<?> superclass)
+    {
+        return getClassPool(classLoader).classPool.makeClass(baseName + "_" + CLASS_NUMBER.incrementAndGet(),
+                resolve(classLoader, superclass));
+    }
+
+    /**
+     * Loads <code>ctClass</code> into <code>classLoader</code>, then removes it from its {@link ClassPool}. Only use
+     * this for classes that no other generated class will refer to.
+     * 
+     * @param ctClass
+     *            the {@link CtClass}
+     * @param classLoader
+     *            the class loader
+     * @return the Java {@link Class}
+     * @throws CannotCompileException
+     *             if a compilation problem occurs
+     */
+    public static Class<?> toClassAndDetach(CtClass ctClass, ClassLoader classLoader) throws CannotCompileException
     {
-        return CLASS_POOL.makeClass(baseName + "_" + CLASS_NUMBER.incrementAndGet(), resolve(superclass));
+        final Class<?> result = ctClass.toClass(classLoader, null);
+        ctClass.detach();
+        return result;
     }
 
     /**
      * Finds the {@link CtClass} corresponding to the Java {@link Class} passed in.
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param clazz
      *            the Java {@link Class}
      * @return the {@link CtClass}
      */
-    public static CtClass resolve(Class<?> clazz)
+    public static CtClass resolve(ClassLoader classLoader, Class<?> clazz)
     {
-        synchronized (CLASS_LOADERS)
-        {
-            try
-            {
-                final ClassLoader loader = clazz.getClassLoader();
-                if (loader != null && !CLASS_LOADERS.contains(loader))
-                {
-                    CLASS_LOADERS.add(loader);
-                    CLASS_POOL.appendClassPath(new LoaderClassPath(loader));
-                }
-                return CLASS_POOL.get(ProxyUtils.getJavaClassName(clazz));
-            }
-            catch (NotFoundException e)
-            {
-                throw new ObjectProviderException("Unable to find class " + clazz.getName()
-                        + " in default Javassist class pool.", e);
-            }
-        }
+        return getClassPool(classLoader).resolve(clazz);
     }
 
     /**
      * Resolves an array of Java {@link Class}es to an array of their corresponding {@link CtClass}es.
      * 
+     * @param classLoader
+     *            the class loader the class is generated for
      * @param classes
      *            the Java {@link Class}es
      * @return the corresponding {@link CtClass}es
      */
-    public static CtClass[] resolve(Class<?>[] classes)
+    public static CtClass[] resolve(ClassLoader classLoader, Class<?>[] classes)
     {
+        final LoaderClassPool classPool = getClassPool(classLoader);
         final CtClass[] ctClasses = new CtClass[classes.length];
         for (int i = 0; i < ctClasses.length; ++i)
         {
-            ctClasses[i] = resolve(classes[i]);
+            ctClasses[i] = classPool.resolve(classes[i]);
         }
         return ctClasses;
     }
 
+    private static LoaderClassPool getClassPool(ClassLoader classLoader)
+    {
+        if (classLoader == null)
+        {
+            return SYSTEM_CLASS_POOL;
+        }
+        LoaderClassPool result = CLASS_POOLS.get(classLoader);
+        if (result == null)
+        {
+            final ClassPool classPool = new ClassPool(SYSTEM_CLASS_POOL.classPool);
+            classPool.appendClassPath(new LoaderClassPath(classLoader));
+            final LoaderClassPool newPool = new LoaderClassPool(classPool);
+            result = CLASS_POOLS.putIfAbsent(classLoader, newPool);
+            if (result == null)
+            {
+                result = newPool;
+            }
+        }
+        return result;
+    }
+
     private JavassistUtils()
     {
         // Hiding constructor in utility class!
     }
+
+    //******************************************************************************************************************
+    // Inner Classes
+    //******************************************************************************************************************
+
+    /**
+     * A {@link ClassPool} with a lock-free cache of resolved {@link CtClass}es. {@link LoaderClassPath} only weakly
+     * references its {@link ClassLoader}, so this does not keep the {@link ClassLoader} it is mapped to alive.
+     */
+    private static final class LoaderClassPool
+    {
+        final ClassPool classPool;
+        final ConcurrentWeakIdentityMap<Class<?>, CtClass> ctClasses
+            = new ConcurrentWeakIdentityMap<Class<?>, CtClass>();
+
+        LoaderClassPool(ClassPool classPool)
+        {
+            this.classPool = classPool;
+        }
+
+        CtClass resolve(Class<?> clazz)
+        {
+            CtClass result = ctClasses.get(clazz);
+            if (result == null)
+            {
+                try
+                {
+                    result = classPool.get(ProxyUtils.getJavaClassName(clazz));
+                }
+                catch (NotFoundException e)
+                {
+                    throw new ObjectProviderException("Unable to find class " + clazz.getName()
+                            + " in Javassist class pool.", e);
+                }
+                ctClasses.putIfAbsent(clazz, result);
+            }
+            return result;
+        }
+    }
 }
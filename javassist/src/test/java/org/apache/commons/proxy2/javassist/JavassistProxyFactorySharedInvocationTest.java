@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.proxy2.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.commons.proxy2.AbstractSubclassingProxyFactoryTestCase;
+import org.apache.commons.proxy2.Interceptor;
+import org.apache.commons.proxy2.Invocation;
+import org.apache.commons.proxy2.util.Echo;
+import org.apache.commons.proxy2.util.EchoImpl;
+import org.junit.Test;
+
+public class JavassistProxyFactorySharedInvocationTest extends AbstractSubclassingProxyFactoryTestCase
+{
+    //**********************************************************************************************************************
+    // Constructors
+    //**********************************************************************************************************************
+
+    public JavassistProxyFactorySharedInvocationTest()
+    {
+        super(new JavassistProxyFactory(true));
+    }
+
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Override
+    @Test
+    public void testMethodInvocationClassCaching() throws Exception
+    {
+        final InvocationClassRecorder recorder = new InvocationClassRecorder();
+        final Echo proxy1 = factory.createInterceptorProxy(new EchoImpl(), recorder, Echo.class);
+        final Echo proxy2 = factory.createInterceptorProxy(new EchoImpl(), recorder, Echo.class);
+        proxy1.echoBack("hello");
+        final Class<?> invocationClass = recorder.invocationClass;
+        assertEquals(3, proxy1.echoBack(3));
+        assertSame(invocationClass, recorder.invocationClass);
+        proxy1.echo();
+        assertSame(invocationClass, recorder.invocationClass);
+        assertEquals("hello world", proxy2.echoBack("hello", " world"));
+        assertSame(invocationClass, recorder.invocationClass);
+    }
+
+    //**********************************************************************************************************************
+    // Inner Classes
+    //**********************************************************************************************************************
+
+    private static class InvocationClassRecorder implements Interceptor
+    {
+        private static final long serialVersionUID = 1L;
+
+        private Class<?> invocationClass;
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable
+        {
+            invocationClass = invocation.getClass();
+            return invocation.proceed();
+        }
+    }
+}
@@ -14,13 +14,64 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.apache.commons.proxy2.javassist;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
 import org.apache.commons.proxy2.AbstractSubclassingProxyFactoryTestCase;
+import org.apache.commons.proxy2.Invoker;
+import org.apache.commons.proxy2.impl.ProxyConstructorCache;
+import org.apache.commons.proxy2.invoker.NullInvoker;
+import org.apache.commons.proxy2.util.Echo;
+import org.junit.Test;
 
 public class JavassistProxyFactoryTest extends AbstractSubclassingProxyFactoryTestCase
 {
     //**********************************************************************************************************************
-    // Constructors
+    // Other Methods
     //**********************************************************************************************************************
+
+    @Test
+    public void testNonPublicSuperinterface()
+    {
+        // the generated class must resolve HiddenGreeter reflectively rather than through a class constant:
+        final Greeter proxy = factory.createInvokerProxy(new Invoker()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+            {
+                return "ok:" + arguments[0];
+            }
+        }, Greeter.class);
+        assertEquals("ok:hi", proxy.greet("hi"));
+    }
+
+    @Test
+    public void testProxyClassKeepsConstructor() throws Exception
+    {
+        final Echo proxy = factory.createInvokerProxy(NullInvoker.INSTANCE, Echo.class);
+        final Field field = proxy.getClass().getDeclaredField(ProxyConstructorCache.CONSTRUCTOR_FIELD_NAME);
+        field.setAccessible(true);
+        assertNotNull(field.get(null));
+    }
+
+    //**********************************************************************************************************************
+    // Inner Classes
+    //**********************************************************************************************************************
+
+    interface HiddenGreeter
+    {
+        String greet(String greeting);
+    }
+
+    public interface Greeter extends HiddenGreeter
+    {
+    }
 }
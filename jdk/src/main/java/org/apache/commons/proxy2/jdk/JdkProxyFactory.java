@@ -18,19 +18,27 @@
 package org.apache.commons.proxy2.jdk;
 
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.proxy2.Interceptor;
 import org.apache.commons.proxy2.Invocation;
 import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
 import org.apache.commons.proxy2.ProxyUtils;
+import org.apache.commons.proxy2.exception.ProxyFactoryException;
 import org.apache.commons.proxy2.impl.AbstractProxyFactory;
+import org.apache.commons.proxy2.impl.ConcurrentWeakIdentityMap;
+import org.apache.commons.proxy2.impl.MethodMetadata;
+import org.apache.commons.proxy2.impl.ProxyClassCache;
+import org.apache.commons.proxy2.impl.ProxyClassGenerator;
+import org.apache.commons.proxy2.impl.ProxyConstructorCache;
 
 /**
  * {@link org.apache.commons.proxy2.ProxyFactory ProxyFactory} implementation that uses {@link java.lang.reflect.Proxy}
@@ -38,6 +46,90 @@ import org.apache.commons.proxy2.impl.AbstractProxyFactory;
  */
 public class JdkProxyFactory extends AbstractProxyFactory
 {
+    //******************************************************************************************************************
+    // Fields
+    //******************************************************************************************************************
+
+    /**
+     * Order-sensitive, because {@link Proxy#getProxyClass(ClassLoader, Class...)} passes the {@link Method} of the first
+     * interface declaring a duplicate method, and rejects repeated interfaces.
+     */
+    private static final ProxyClassCache PROXY_CLASS_CACHE = new ProxyClassCache(new JdkProxyClassGenerator(), true);
+
+    private static final ProxyConstructorCache CONSTRUCTOR_CACHE = new ProxyConstructorCache(InvocationHandler.class);
+
+    /**
+     * Accessible copies of proxied methods declared by non-public types, softly referenced. Without them,
+     * {@link Method#invoke(Object, Object...)} would check access on every call, and deny it.
+     */
+    private static final ConcurrentWeakIdentityMap<Method, Reference<Method>> ACCESSIBLE_METHODS
+        = new ConcurrentWeakIdentityMap<Method, Reference<Method>>();
+
+    //******************************************************************************************************************
+    // Static Methods
+    //******************************************************************************************************************
+
+    /**
+     * Invokes <code>method</code> on <code>target</code>, rethrowing any exception the method throws as is.
+     */
+    private static Object invokeMethod(Method method, Object target, Object[] args) throws Throwable
+    {
+        try
+        {
+            return toAccessibleMethod(method).invoke(target, args);
+        }
+        catch (InvocationTargetException e)
+        {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Method toAccessibleMethod(Method method)
+    {
+        // proxied methods are public, so only the declaring class can restrict access:
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+        {
+            return method;
+        }
+        final Reference<Method> ref = ACCESSIBLE_METHODS.get(method);
+        Method result = ref == null ? null : ref.get();
+        if (result == null)
+        {
+            try
+            {
+                result = method.getDeclaringClass().getMethod(method.getName(), method.getParameterTypes());
+                result.setAccessible(true);
+            }
+            catch (Exception e)
+            {
+                // leave it to Method.invoke() to report the problem:
+                return method;
+            }
+            ACCESSIBLE_METHODS.put(method, new SoftReference<Method>(result));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a proxy instance like {@link Proxy#newProxyInstance(ClassLoader, Class[], InvocationHandler)}, but with
+     * the proxy class and its constructor looked up in our own caches.
+     */
+    private static <T> T newProxyInstance(ClassLoader classLoader, Class<?>[] proxyClasses,
+            InvocationHandler invocationHandler)
+    {
+        final Class<?> proxyClass = PROXY_CLASS_CACHE.getProxyClass(classLoader, proxyClasses);
+        try
+        {
+            @SuppressWarnings("unchecked") // type inference
+            final T result = (T) CONSTRUCTOR_CACHE.getConstructor(proxyClass).newInstance(invocationHandler);
+            return result;
+        }
+        catch (Exception e)
+        {
+            throw new ProxyFactoryException("Unable to instantiate proxy class " + proxyClass.getName() + ".", e);
+        }
+    }
+
     //******************************************************************************************************************
     // ProxyFactory Implementation
     //******************************************************************************************************************
@@ -57,10 +149,7 @@ public class JdkProxyFactory extends AbstractProxyFactory
     public <T> T createDelegatorProxy(ClassLoader classLoader, ObjectProvider<?> delegateProvider,
             Class<?>... proxyClasses)
     {
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) Proxy.newProxyInstance(classLoader, proxyClasses, new DelegatorInvocationHandler(
-                delegateProvider));
-        return result;
+        return newProxyInstance(classLoader, proxyClasses, new DelegatorInvocationHandler(delegateProvider));
     }
 
     /**
@@ -82,10 +171,7 @@ public class JdkProxyFactory extends AbstractProxyFactory
     public <T> T createInterceptorProxy(ClassLoader classLoader, Object target, Interceptor interceptor,
             Class<?>... proxyClasses)
     {
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) Proxy.newProxyInstance(classLoader, proxyClasses, new InterceptorInvocationHandler(target,
-                interceptor));
-        return result;
+        return newProxyInstance(classLoader, proxyClasses, new InterceptorInvocationHandler(target, interceptor));
     }
 
     /**
@@ -102,15 +188,22 @@ public class JdkProxyFactory extends AbstractProxyFactory
     @Override
     public <T> T createInvokerProxy(ClassLoader classLoader, Invoker invoker, Class<?>... proxyClasses)
     {
-        @SuppressWarnings("unchecked") // type inference
-        final T result = (T) Proxy.newProxyInstance(classLoader, proxyClasses, new InvokerInvocationHandler(invoker));
-        return result;
+        return newProxyInstance(classLoader, proxyClasses, new InvokerInvocationHandler(invoker));
     }
 
     //******************************************************************************************************************
     // Inner Classes
     //******************************************************************************************************************
 
+    private static class JdkProxyClassGenerator implements ProxyClassGenerator
+    {
+        @Override
+        public Class<?> generateProxyClass(ClassLoader classLoader, Class<?>... proxyClasses)
+        {
+            return Proxy.getProxyClass(classLoader, proxyClasses);
+        }
+    }
+
     private abstract static class AbstractInvocationHandler implements InvocationHandler, Serializable
     {
         /** Serialization version */
@@ -119,11 +212,12 @@ public class JdkProxyFactory extends AbstractProxyFactory
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
         {
-            if (ProxyUtils.isHashCode(method))
+            final MethodMetadata metadata = MethodMetadata.of(method);
+            if (metadata.isHashCode())
             {
                 return Integer.valueOf(System.identityHashCode(proxy));
             }
-            else if (ProxyUtils.isEqualsMethod(method))
+            else if (metadata.isEquals())
             {
                 return Boolean.valueOf(proxy == args[0]);
             }
@@ -151,14 +245,7 @@ public class JdkProxyFactory extends AbstractProxyFactory
         @Override
         public Object invokeImpl(Object proxy, Method method, Object[] args) throws Throwable
         {
-            try
-            {
-                return method.invoke(delegateProvider.getObject(), args);
-            }
-            catch (InvocationTargetException e)
-            {
-                throw e.getTargetException();
-            }
+            return invokeMethod(method, delegateProvider.getObject(), args);
         }
     }
 
@@ -215,7 +302,8 @@ public class JdkProxyFactory extends AbstractProxyFactory
             this.proxy = proxy;
             this.target = target;
             this.method = method;
-            this.arguments = ObjectUtils.defaultIfNull(ArrayUtils.clone(arguments), ProxyUtils.EMPTY_ARGUMENTS);
+            // java.lang.reflect.Proxy passes a new array for every call, so there is no need to copy it:
+            this.arguments = ObjectUtils.defaultIfNull(arguments, ProxyUtils.EMPTY_ARGUMENTS);
         }
 
         @Override
@@ -239,14 +327,7 @@ public class JdkProxyFactory extends AbstractProxyFactory
         @Override
         public Object proceed() throws Throwable
         {
-            try
-            {
-                return method.invoke(target, arguments);
-            }
-            catch (InvocationTargetException e)
-            {
-                throw e.getTargetException();
-            }
+            return invokeMethod(method, target, arguments);
         }
     }
 }
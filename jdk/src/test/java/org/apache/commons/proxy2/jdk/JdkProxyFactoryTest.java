@@ -16,8 +16,60 @@
  */
 package org.apache.commons.proxy2.jdk;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+
 import org.apache.commons.proxy2.AbstractProxyFactoryTestCase;
+import org.apache.commons.proxy2.Invoker;
+import org.apache.commons.proxy2.invoker.NullInvoker;
+import org.apache.commons.proxy2.provider.ConstantProvider;
+import org.apache.commons.proxy2.util.DuplicateEcho;
+import org.apache.commons.proxy2.util.Echo;
+import org.apache.commons.proxy2.util.EchoImpl;
+import org.apache.commons.proxy2.util.SuffixInterceptor;
+import org.junit.Test;
 
 public class JdkProxyFactoryTest extends AbstractProxyFactoryTestCase
 {
+    //**********************************************************************************************************************
+    // Other Methods
+    //**********************************************************************************************************************
+
+    @Test
+    public void testProxyClassCaching()
+    {
+        final Echo proxy1 = factory.createDelegatorProxy(new ConstantProvider<Echo>(new EchoImpl()), Echo.class);
+        final Echo proxy2 = factory.createInterceptorProxy(new EchoImpl(), new SuffixInterceptor(" suffix"),
+                Echo.class);
+        assertSame(proxy1.getClass(), proxy2.getClass());
+        assertEquals("hello", proxy1.echoBack("hello"));
+        assertEquals("hello suffix", proxy2.echoBack("hello"));
+    }
+
+    @Test
+    public void testDuplicateMethodFromFirstInterface()
+    {
+        final Invoker invoker = new Invoker()
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+            {
+                return method.getDeclaringClass().getSimpleName();
+            }
+        };
+        final Echo echoFirst = factory.createInvokerProxy(invoker, Echo.class, DuplicateEcho.class);
+        final Echo duplicateFirst = factory.createInvokerProxy(invoker, DuplicateEcho.class, Echo.class);
+        assertEquals("Echo", echoFirst.echoBack("hello"));
+        assertEquals("DuplicateEcho", duplicateFirst.echoBack("hello"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRepeatedInterface()
+    {
+        factory.createInvokerProxy(NullInvoker.INSTANCE, Echo.class, Echo.class);
+    }
 }
@@ -18,14 +18,25 @@
 package org.apache.commons.proxy2.stub;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.proxy2.Invoker;
 import org.apache.commons.proxy2.ObjectProvider;
+import org.apache.commons.proxy2.interceptor.InterceptorUtils;
 import org.apache.commons.proxy2.provider.BeanProvider;
 import org.apache.commons.proxy2.provider.ObjectProviderUtils;
 import org.junit.Test;
@@ -131,10 +142,127 @@ public class StubBuilderTest extends AbstractStubTestCase
         assertTrue(stub instanceof Marker);
     }
 
+    @Test
+    public void testTemplate()
+    {
+        StubBuilder<StubInterface> builder = new StubBuilder<StubInterface>(proxyFactory, StubInterface.class);
+        builder.train(new Trainer<StubInterface>()
+        {
+            @Override
+            protected void train(StubInterface trainee)
+            {
+                when(trainee.one("Foo")).thenReturn("Bar");
+            }
+        });
+        StubTemplate<StubInterface> template = builder.toTemplate();
+        builder.train(new Trainer<StubInterface>()
+        {
+            @Override
+            protected void train(StubInterface trainee)
+            {
+                when(trainee.one("Baz")).thenReturn("Qux");
+            }
+        });
+        StubInterface stub1 = template.build();
+        StubInterface stub2 = template.build();
+        assertNotSame(stub1, stub2);
+        assertEquals("Bar", stub1.one("Foo"));
+        assertEquals("Bar", stub2.one("Foo"));
+        assertNull(stub1.one("Baz"));
+        assertEquals("Qux", builder.build().one("Baz"));
+    }
+
+    @Test
+    public void testConcurrentTraining() throws Exception
+    {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < threads; i++)
+            {
+                final String value = String.valueOf(i);
+                results.add(executor.submit(new Callable<Boolean>()
+                {
+                    @Override
+                    public Boolean call()
+                    {
+                        for (int j = 0; j < 100; j++)
+                        {
+                            final StubInterface stub = createProxy(new Trainer<StubInterface>()
+                            {
+                                @Override
+                                protected void train(StubInterface trainee)
+                                {
+                                    when(trainee.one("Foo")).thenReturn(value);
+                                }
+                            });
+                            if (!value.equals(stub.one("Foo")))
+                            {
+                                return Boolean.FALSE;
+                            }
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                assertTrue(result.get().booleanValue());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNestedStubFallsBackToInvoker()
+    {
+        final CountingInvoker fallback = new CountingInvoker();
+        final TrainingContext context = TrainingContext.join(proxyFactory);
+        final StubInterface stub;
+        try
+        {
+            final StubInterface trainee = context.push(StubInterface.class);
+            trainee.one("Foo");
+            context.then(InterceptorUtils.constant("Bar"));
+            stub = context.pop(fallback);
+        }
+        finally
+        {
+            context.part();
+        }
+        assertEquals("Bar", stub.one("Foo"));
+        assertEquals(0, fallback.count);
+        assertEquals("fallback", stub.one("Baz"));
+        assertEquals(1, fallback.count);
+        // the fallback sees the stub itself, not an inner proxy behind it:
+        assertSame(stub, fallback.proxy);
+    }
+
     //----------------------------------------------------------------------------------------------------------------------
     // Inner Classes
     //----------------------------------------------------------------------------------------------------------------------
 
+    private static class CountingInvoker implements Invoker
+    {
+        private static final long serialVersionUID = 1L;
+
+        private int count;
+        private Object proxy;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable
+        {
+            count++;
+            this.proxy = proxy;
+            return "fallback";
+        }
+    }
+
     private static class SimpleStub implements StubInterface
     {
         @Override